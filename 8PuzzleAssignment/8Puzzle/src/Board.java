@@ -1,8 +1,19 @@
+import java.util.Arrays;
+
 public class Board {
 
-    private final int[] blocks;
+    // Up to 4x4, the 16 blocks of 4 bits each fit in a single long
+    private static final int MAX_PACKED = 4;
+    private static final int BITS = 4;
+    private static final long MASK = 0xF;
+
+    private final int[] blocks; // null if packed
+    private final long packed; // block i in bits [4i, 4i + 4)
     private final int dimension;
     private final int size;
+    private final int blank; // position of the empty block
+    private final int hamming; // both computed once, see getNeighbor()
+    private final int manhattan;
 
     /**
      * Construct a board from an N-by-N array of blocks (where blocks[i][j] =
@@ -14,19 +25,48 @@ public class Board {
         dimension = b.length;
         size = dimension * dimension;
 
-        blocks = new int[size];
+        final int[] all = new int[size];
 
         for (int row = 0; row < dimension; row++) {
             for (int column = 0; column < dimension; column++) {
-                blocks[row * dimension + column] = b[row][column];
+                all[row * dimension + column] = b[row][column];
+            }
+        }
+
+        int h = 0;
+        int m = 0;
+        int zero = 0;
+        long p = 0;
+        for (int i = 0; i < size; i++) {
+            h += misplaced(all[i], i);
+            m += distance(all[i], i);
+            if (all[i] == 0) {
+                zero = i;
             }
+            p |= (long) all[i] << (BITS * i);
+        }
+        hamming = h;
+        manhattan = m;
+        blank = zero;
+
+        if (dimension <= MAX_PACKED) {
+            blocks = null;
+            packed = p;
+        } else {
+            blocks = all;
+            packed = 0;
         }
     }
 
-    private Board(final int[] b, final int n) {
+    private Board(final int[] b, final long p, final int n, final int zero,
+            final int h, final int m) {
         blocks = b;
-        size = b.length;
+        packed = p;
         dimension = n;
+        size = n * n;
+        blank = zero;
+        hamming = h;
+        manhattan = m;
     }
 
     /**
@@ -39,20 +79,49 @@ public class Board {
     }
 
     /**
-     * Number of blocks out of place
+     * Block at the given flat position (row * N + column, both from 0), 0
+     * for the empty one
      * 
+     * @param position
      * @return
      */
-    public int hamming() {
-        int hamming = 0;
-
-        for (int i = 0; i < size; i++) {
-            // Count blocks with wrong value excluding the 0
-            if ((blocks[i] != i + 1) && (blocks[i] != 0)) {
-                hamming++;
-            }
+    public int block(final int position) {
+        if (blocks == null) {
+            return (int) (packed >>> (BITS * position) & MASK);
         }
+        return blocks[position];
+    }
+
+    /**
+     * Position of the empty block
+     */
+    int blank() {
+        return blank;
+    }
 
+    /**
+     * Are the blocks packed in a long? (N <= 4)
+     */
+    boolean isPacked() {
+        return blocks == null;
+    }
+
+    /**
+     * All the blocks of a packed board in a single long, 4 bits per block;
+     * two boards of the same dimension are equal if these are
+     */
+    long packed() {
+        if (blocks != null)
+            throw new IllegalStateException("Board is not packed");
+        return packed;
+    }
+
+    /**
+     * Number of blocks out of place
+     * 
+     * @return
+     */
+    public int hamming() {
         return hamming;
     }
 
@@ -62,26 +131,38 @@ public class Board {
      * @return
      */
     public int manhattan() {
-        int manhattan = 0;
+        return manhattan;
+    }
 
-        for (int i = 0; i < size; i++) {
-            // Explore blocks with wrong value excluding the 0
-            // Block 0 should contain value 1, etc.
-            if ((blocks[i] != i + 1) && (blocks[i] != 0)) {
-                final int row = i / dimension;
-                final int column = i % dimension;
-
-                final int value = blocks[i];
-                // The value 1 should be at block 0, etc.
-                final int expectedRow = (value - 1) / dimension;
-                final int expectedColumn = (value - 1) % dimension;
-
-                manhattan += Math.abs(expectedRow - row)
-                        + Math.abs(expectedColumn - column);
-            }
+    /**
+     * 1 if the given block is out of place at the given position, 0 otherwise
+     * or if it is the empty one
+     */
+    private static int misplaced(final int value, final int position) {
+        // Count blocks with wrong value excluding the 0
+        if ((value != position + 1) && (value != 0)) {
+            return 1;
         }
+        return 0;
+    }
 
-        return manhattan;
+    /**
+     * Manhattan distance between the given position and the goal of the given
+     * block, 0 for the empty one
+     */
+    private int distance(final int value, final int position) {
+        if (value == 0) {
+            return 0;
+        }
+
+        final int row = position / dimension;
+        final int column = position % dimension;
+
+        // The value 1 should be at block 0, etc.
+        final int expectedRow = (value - 1) / dimension;
+        final int expectedColumn = (value - 1) % dimension;
+
+        return Math.abs(expectedRow - row) + Math.abs(expectedColumn - column);
     }
 
     /**
@@ -93,7 +174,7 @@ public class Board {
         // If any block has a different value than the expected: is not the goal
         for (int i = 0; i < size; i++) {
             // The last block has to be different (=0)
-            if ((blocks[i] != i + 1) && (i != size - 1)) {
+            if ((block(i) != i + 1) && (i != size - 1)) {
                 return false;
             }
         }
@@ -101,6 +182,47 @@ public class Board {
         return true;
     }
 
+    /**
+     * Can this board reach the goal? Only half of the boards can: a move
+     * keeps the parity of the number of inversions (pairs of blocks in the
+     * wrong order, reading the board row by row) when N is odd, and of the
+     * inversions plus the row of the empty block when N is even.
+     * 
+     * @return
+     */
+    public boolean isSolvable() {
+        // The parity of the inversions is the parity of the permutation of
+        // the blocks, found in O(N^2) from its cycles: a cycle of k blocks
+        // is k - 1 exchanges
+        final boolean[] visited = new boolean[size];
+        int exchanges = 0;
+
+        for (int start = 1; start < size; start++) {
+            if (!visited[start]) {
+                int length = 0;
+                int value = start;
+
+                // block value is the k-th non empty one, k = its position
+                // minus 1 if it comes after the empty block
+                while (!visited[value]) {
+                    visited[value] = true;
+                    length++;
+                    int position = value - 1;
+                    if (position >= blank) {
+                        position++;
+                    }
+                    value = block(position);
+                }
+                exchanges += length - 1;
+            }
+        }
+
+        if (dimension % 2 == 1) {
+            return exchanges % 2 == 0;
+        }
+        return (exchanges + blank / dimension) % 2 == 1;
+    }
+
     /**
      * A board that is obtained by exchanging two adjacent blocks in the same
      * row
@@ -113,7 +235,7 @@ public class Board {
         int j = 1;
         
         // If the 0 is in the first row, then get blocks from the last one
-        if (blocks[i] == 0 || blocks[j] == 0) {
+        if (block(i) == 0 || block(j) == 0) {
             i = size - 2;
             j = size - 1;
         }
@@ -129,6 +251,30 @@ public class Board {
      * @return
      */
     private Board getNeighbor(final int pos1, final int pos2) {
+        final int a = block(pos1);
+        final int b = block(pos2);
+
+        // Only the 2 exchanged blocks change their distances to the goal
+        final int h = hamming - misplaced(a, pos1) - misplaced(b, pos2)
+                + misplaced(a, pos2) + misplaced(b, pos1);
+        final int m = manhattan - distance(a, pos1) - distance(b, pos2)
+                + distance(a, pos2) + distance(b, pos1);
+
+        int zero = blank;
+        if (a == 0) {
+            zero = pos2;
+        } else if (b == 0) {
+            zero = pos1;
+        }
+
+        if (blocks == null) {
+            // Exchange the 2 blocks with a couple of shifts, no copy
+            final long diff = a ^ b;
+            final long p = packed ^ (diff << (BITS * pos1))
+                    ^ (diff << (BITS * pos2));
+            return new Board(null, p, dimension, zero, h, m);
+        }
+
         final int[] newBlocks = new int[size];
 
         // First copy all the blocks as in the original board
@@ -137,11 +283,27 @@ public class Board {
         }
 
         // Exchange the 2 first blocks in the twin
-        final int aux = newBlocks[pos1];
-        newBlocks[pos1] = newBlocks[pos2];
-        newBlocks[pos2] = aux;
+        newBlocks[pos1] = b;
+        newBlocks[pos2] = a;
+
+        return new Board(newBlocks, 0, dimension, zero, h, m);
+    }
+
+    /**
+     * Board obtained by moving the block at the given position, next to the
+     * empty one, into the empty one
+     */
+    Board slide(final int position) {
+        return getNeighbor(blank, position);
+    }
 
-        return new Board(newBlocks, dimension);
+    /**
+     * Packed blocks obtained by moving the block at the given position into
+     * the empty one at blank, without building the board
+     */
+    static long slide(final long p, final int blank, final int position) {
+        final long block = p >>> (BITS * position) & MASK;
+        return p ^ (block << (BITS * position)) ^ (block << (BITS * blank));
     }
 
     /**
@@ -157,6 +319,11 @@ public class Board {
 
         final Board that = (Board) y;
 
+        if (dimension != that.dimension)
+            return false;
+        if (blocks == null)
+            return packed == that.packed;
+
         // If at any block they 2 boards have different value: not equals
         for (int i = 0; i < size; i++) {
             if (blocks[i] != that.blocks[i]) {
@@ -167,21 +334,22 @@ public class Board {
         return true;
     }
 
+    /**
+     * Hash code consistent with equals()
+     */
+    public int hashCode() {
+        if (blocks == null)
+            return (int) (packed ^ (packed >>> 32));
+        return Arrays.hashCode(blocks);
+    }
+
     /**
      * All neighboring boards
      * 
      * @return
      */
     public Iterable<Board> neighbors() {
-        // Locate block with value 0
-        int pos0 = 0;
-
-        for (int i = 0; i < size; i++) {
-            if (blocks[i] == 0) {
-                pos0 = i;
-                break;
-            }
-        }
+        final int pos0 = blank;
 
         final Stack<Board> neighbors = new Stack<Board>();
 
@@ -220,7 +388,7 @@ public class Board {
         for (int row = 0; row < dimension; row++) {
             for (int column = 0; column < dimension; column++) {
                 s.append(String
-                        .format("%2d ", blocks[row * dimension + column]));
+                        .format("%2d ", block(row * dimension + column)));
             }
             s.append("\n");
         }
@@ -0,0 +1,129 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Priority queue of items with small non-negative integer priorities,
+ * as A* search nodes are: f = moves + estimate is at most a few hundred.
+ * Items live in LIFO buckets indexed by f and then by the estimate h, so
+ * the lowest f comes out first, ties going to the lowest h (the node
+ * closest to the goal) and then to the last node inserted (depth first).
+ *
+ * Insertion is O(1) and no comparison is ever made. delMin() looks for
+ * the first non-empty bucket from the last one it emptied, which is
+ * O(1) amortized in A*, where f never decreases much.
+ */
+public class BucketQueue<Item> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Bucket[][] buckets; // buckets[f][h], null until used
+    private int minF; // no item has a lower f
+    private int minH; // nor, with f = minF, a lower h
+    private int size;
+
+    /**
+     * LIFO stack of the items of the same f and h
+     */
+    private static final class Bucket {
+        private Object[] items = new Object[INITIAL_CAPACITY];
+        private int n = 0;
+    }
+
+    /**
+     * Empty queue
+     */
+    public BucketQueue() {
+        buckets = new Bucket[INITIAL_CAPACITY][];
+        minF = 0;
+        minH = 0;
+        size = 0;
+    }
+
+    /**
+     * Is the queue empty?
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Number of items in the queue
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds the item with priority f, and h to break the ties between equal
+     * f's.
+     */
+    public void insert(final Item item, final int f, final int h) {
+        if (f < 0 || h < 0)
+            throw new IllegalArgumentException("Priorities must not be negative");
+
+        if (f >= buckets.length) {
+            final Bucket[][] grown = new Bucket[Math.max(2 * buckets.length,
+                    f + 1)][];
+            System.arraycopy(buckets, 0, grown, 0, buckets.length);
+            buckets = grown;
+        }
+        if (buckets[f] == null) {
+            buckets[f] = new Bucket[Math.max(INITIAL_CAPACITY, h + 1)];
+        } else if (h >= buckets[f].length) {
+            final Bucket[] grown = new Bucket[Math.max(2 * buckets[f].length,
+                    h + 1)];
+            System.arraycopy(buckets[f], 0, grown, 0, buckets[f].length);
+            buckets[f] = grown;
+        }
+        if (buckets[f][h] == null) {
+            buckets[f][h] = new Bucket();
+        }
+
+        final Bucket bucket = buckets[f][h];
+        if (bucket.n == bucket.items.length) {
+            final Object[] grown = new Object[2 * bucket.n];
+            System.arraycopy(bucket.items, 0, grown, 0, bucket.n);
+            bucket.items = grown;
+        }
+        bucket.items[bucket.n++] = item;
+
+        if (size == 0 || f < minF || (f == minF && h < minH)) {
+            minF = f;
+            minH = h;
+        }
+        size++;
+    }
+
+    /**
+     * Removes and returns the item of lowest f, lowest h among them, and
+     * inserted last among those.
+     */
+    @SuppressWarnings("unchecked")
+    public Item delMin() {
+        if (size == 0)
+            throw new NoSuchElementException("Priority queue underflow");
+
+        // Move forward to the first non-empty bucket
+        while (true) {
+            final Bucket[] byH = buckets[minF];
+            if (byH != null) {
+                while (minH < byH.length
+                        && (byH[minH] == null || byH[minH].n == 0)) {
+                    minH++;
+                }
+                if (minH < byH.length) {
+                    break;
+                }
+            }
+            minF++;
+            minH = 0;
+        }
+
+        final Bucket bucket = buckets[minF][minH];
+        final Item item = (Item) bucket.items[--bucket.n];
+        bucket.items[bucket.n] = null; // avoid loitering
+        size--;
+
+        return item;
+    }
+
+}
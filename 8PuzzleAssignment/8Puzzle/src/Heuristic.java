@@ -0,0 +1,28 @@
+/**
+ * Lower bound of the number of moves left to reach the goal from a board,
+ * used by Solver to order its search nodes. It must never overestimate, or
+ * the solutions found are no longer the shortest ones.
+ *
+ * Solver also works best with a consistent heuristic, where estimate(b) <= 1 +
+ * estimate(b') for every neighbor b' of b, as MANHATTAN and PatternDatabase
+ * are: every board is then expanded once. An inconsistent one still gives the
+ * shortest solutions, but boards may be expanded again when reached by a
+ * shorter path.
+ */
+public interface Heuristic {
+
+    /**
+     * Sum of the Manhattan distances of the blocks to their goal positions.
+     */
+    Heuristic MANHATTAN = new Heuristic() {
+        public int estimate(final Board board) {
+            return board.manhattan();
+        }
+    };
+
+    /**
+     * Lower bound of the moves needed to solve the given board.
+     */
+    int estimate(Board board);
+
+}
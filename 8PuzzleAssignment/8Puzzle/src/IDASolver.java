@@ -0,0 +1,264 @@
+/**
+ * Iterative-deepening A* (IDA*) version of Solver, for puzzles whose A*
+ * search trees do not fit in memory, such as random 15-puzzles.
+ *
+ * Every iteration is a depth-first search that cuts the paths whose
+ * moves + Manhattan distance exceed a bound, which starts at the Manhattan
+ * distance of the initial board and grows to the smallest cut value after
+ * every failed iteration. Only the current path is kept: moves are made
+ * and undone in place on a single array of blocks, and the Manhattan
+ * distance is updated with the one block that moved. So the memory is a
+ * few KB whatever the puzzle, at the price of visiting again the boards of
+ * earlier iterations.
+ *
+ * Unsolvable boards are told apart by Board.isSolvable() beforehand, as
+ * the search would never end on them.
+ */
+public class IDASolver {
+
+    private static final int FOUND = -1;
+
+    private final Board initial;
+    private final int[] solution; // position of the blank after every move
+
+    /**
+     * Depth-first search state of one board: its blocks, moved in place, and
+     * the positions of the blank along the current path.
+     */
+    private static final class Search {
+        private final int dimension;
+        private final int[] blocks;
+        private final int[][] distance; // distance[block][position]
+        private int blank;
+        private int[] path;
+        private int bound;
+
+        Search(final Board board) {
+            dimension = board.dimension();
+
+            final int size = dimension * dimension;
+            blocks = new int[size];
+            distance = new int[size][size];
+
+            int h = 0;
+            for (int i = 0; i < size; i++) {
+                blocks[i] = board.block(i);
+                if (blocks[i] == 0) {
+                    blank = i;
+                }
+            }
+            for (int block = 1; block < size; block++) {
+                final int goal = block - 1;
+                for (int i = 0; i < size; i++) {
+                    distance[block][i] = Math.abs(i / dimension - goal
+                            / dimension)
+                            + Math.abs(i % dimension - goal % dimension);
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                h += distance[blocks[i]][i];
+            }
+
+            bound = h;
+            path = new int[h + 1];
+        }
+
+        /**
+         * Depth-first search within the current bound.
+         *
+         * @return true if the goal was reached, the path being in path[0..
+         *         bound)
+         */
+        boolean iterate() {
+            if (path.length < bound + 1) {
+                path = new int[2 * bound + 1];
+            }
+
+            int h = 0;
+            for (int i = 0; i < blocks.length; i++) {
+                h += distance[blocks[i]][i];
+            }
+
+            final int next = search(0, h, -1);
+            if (next == FOUND) {
+                return true;
+            }
+
+            bound = next;
+            return false;
+        }
+
+        /**
+         * Searches below the current board, reached in g moves and with a
+         * Manhattan distance of h, never moving the blank back to previous.
+         *
+         * @return FOUND, or the smallest g + h over the bound
+         */
+        private int search(final int g, final int h, final int previous) {
+            if (g + h > bound) {
+                return g + h;
+            }
+            if (h == 0) {
+                return FOUND;
+            }
+
+            final int row = blank / dimension;
+            final int column = blank % dimension;
+            int min = Integer.MAX_VALUE;
+
+            for (int direction = 0; direction < 4; direction++) {
+                final int cell;
+                if (direction == 0 && row > 0) {
+                    cell = blank - dimension;
+                } else if (direction == 1 && row < dimension - 1) {
+                    cell = blank + dimension;
+                } else if (direction == 2 && column > 0) {
+                    cell = blank - 1;
+                } else if (direction == 3 && column < dimension - 1) {
+                    cell = blank + 1;
+                } else {
+                    continue;
+                }
+                if (cell == previous) {
+                    continue;
+                }
+
+                // slide the block at cell into the blank
+                final int block = blocks[cell];
+                final int from = blank;
+                final int moved = h + distance[block][from]
+                        - distance[block][cell];
+
+                blocks[from] = block;
+                blocks[cell] = 0;
+                blank = cell;
+                path[g] = cell;
+
+                final int t = search(g + 1, moved, from);
+                if (t == FOUND) {
+                    return FOUND;
+                }
+
+                blocks[cell] = block;
+                blocks[from] = 0;
+                blank = from;
+
+                if (t < min) {
+                    min = t;
+                }
+            }
+
+            return min;
+        }
+    }
+
+    /**
+     * Find a solution to the initial board (using the IDA* algorithm)
+     *
+     * @param initial
+     */
+    public IDASolver(final Board initial) {
+        this.initial = initial;
+
+        if (!initial.isSolvable()) {
+            solution = null;
+            return;
+        }
+
+        // Deepen the search until the goal is within the bound
+        final Search board = new Search(initial);
+        boolean found = false;
+        while (!found) {
+            found = board.iterate();
+        }
+
+        solution = new int[board.bound];
+        System.arraycopy(board.path, 0, solution, 0, board.bound);
+    }
+
+    /**
+     * Is the initial board solvable?
+     *
+     * @return
+     */
+    public boolean isSolvable() {
+        return solution != null;
+    }
+
+    /**
+     * Minimum number of moves to solve initial board; -1 if unsolvable
+     *
+     * @return
+     */
+    public int moves() {
+        if (solution == null) {
+            return -1;
+        }
+
+        return solution.length;
+    }
+
+    /**
+     * Sequence of boards in a shortest solution; null if unsolvable
+     *
+     * @return
+     */
+    public Iterable<Board> solution() {
+        if (solution == null) {
+            return null;
+        }
+
+        final int N = initial.dimension();
+        final int[][] blocks = new int[N][N];
+        int blank = 0;
+
+        for (int i = 0; i < N * N; i++) {
+            blocks[i / N][i % N] = initial.block(i);
+            if (initial.block(i) == 0) {
+                blank = i;
+            }
+        }
+
+        // Replay the moves, the boards are only built now
+        final Queue<Board> solutionPath = new Queue<Board>();
+        solutionPath.enqueue(initial);
+
+        for (final int cell : solution) {
+            blocks[blank / N][blank % N] = blocks[cell / N][cell % N];
+            blocks[cell / N][cell % N] = 0;
+            blank = cell;
+            solutionPath.enqueue(new Board(blocks));
+        }
+
+        return solutionPath;
+    }
+
+    /**
+     * Solve a slider puzzle with IDA*
+     *
+     * @param args
+     */
+    public static void main(String[] args) {
+        // create initial board from file
+        In in = new In(args[0]);
+        int N = in.readInt();
+        int[][] blocks = new int[N][N];
+        for (int i = 0; i < N; i++)
+            for (int j = 0; j < N; j++)
+                blocks[i][j] = in.readInt();
+        Board initial = new Board(blocks);
+
+        // solve the puzzle
+        IDASolver solver = new IDASolver(initial);
+
+        // print solution to standard output
+        if (!solver.isSolvable())
+            StdOut.println("No solution possible");
+        else {
+            StdOut.println("Minimum number of moves = " + solver.moves());
+            for (Board board : solver.solution())
+                StdOut.println(board);
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/**
+ * Map from longs to ints with open addressing and linear probing over a
+ * plain long[] and int[], without boxing: 12 bytes per slot and at most half
+ * of the slots in use, so 24 bytes or less per key. The table stops growing
+ * once it holds the given limit of keys, after which new keys are no longer
+ * added, so a search that keeps its visited states here has a bounded
+ * memory.
+ */
+public class LongIntHashMap {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] keys; // 0 marks an empty slot
+    private int[] values;
+    private int mask;
+    private boolean hasZero; // the key 0 is kept apart
+    private int zeroValue;
+    private int size;
+    private final int limit;
+
+    /**
+     * Empty map that will hold at most limit keys.
+     */
+    public LongIntHashMap(final int limit) {
+        if (limit <= 0)
+            throw new IllegalArgumentException(
+                    "Argument must be greater than 0");
+
+        this.limit = limit;
+        keys = new long[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Number of keys in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Is the map holding its limit of keys?
+     */
+    public boolean isFull() {
+        return size >= limit;
+    }
+
+    /**
+     * Value of the key, or missing if the key is not in the map.
+     */
+    public int get(final long key, final int missing) {
+        if (key == 0) {
+            return hasZero ? zeroValue : missing;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    /**
+     * Sets the value of the key. A key not in the map yet is not added if the
+     * map is full.
+     */
+    public void put(final long key, final int value) {
+        if (key == 0) {
+            if (hasZero) {
+                zeroValue = value;
+            } else if (!isFull()) {
+                hasZero = true;
+                zeroValue = value;
+                size++;
+            }
+            return;
+        }
+
+        int slot = slot(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (!isFull()) {
+            keys[slot] = key;
+            values[slot] = value;
+            size++;
+            if (2 * size > keys.length) {
+                grow();
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of the key, as consecutive boards differ in few bits.
+     */
+    private int slot(final long key) {
+        final long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        final long[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new long[2 * oldKeys.length];
+        values = new int[keys.length];
+        mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+}
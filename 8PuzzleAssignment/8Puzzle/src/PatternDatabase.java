@@ -0,0 +1,413 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Disjoint additive pattern databases for the N-by-N sliding puzzle.
+ * The tiles are split into groups (e.g. 6-6-3 for the 15-puzzle) and,
+ * for every group, a table gives the exact number of moves of the group's
+ * own tiles needed to bring them home from any placement, whatever the
+ * other tiles. As no move is counted by two groups, the sum over the
+ * groups is still a lower bound, and a much tighter one than Manhattan.
+ *
+ * Tables are filled by a breadth-first search backwards from the goal
+ * over (placement of the group's tiles, position of the blank), where
+ * moving the blank into a cell of another group is free. A placement of
+ * k tiles over n cells is numbered from 0 to n!/(n-k)! - 1, so every
+ * table is a byte per placement: 5.8 MB for 6 tiles of the 15-puzzle.
+ *
+ * Building the 6-6-3 tables takes a while and about 100 MB of heap, so
+ * they can be saved once to a file and loaded afterwards:
+ *
+ * % java PatternDatabase 4 fifteen.pdb
+ */
+public class PatternDatabase implements Heuristic {
+
+    private static final byte UNSEEN = -1; // state not reached yet
+
+    private final int dimension;
+    private final int[][] groups; // tiles of every group
+    private final byte[][] tables; // tables[g][placement] = moves
+    private final int[] groupOf; // groupOf[tile] = its group, or -1
+    private final int[] indexOf; // indexOf[tile] = its index in the group
+    private final int[][] weights; // weights[g][i] = (n-i-1)!/(n-k)!
+
+    private PatternDatabase(final int n, final int[][] g, final byte[][] t) {
+        dimension = n;
+        groups = g;
+        tables = t;
+
+        final int cells = n * n;
+        groupOf = new int[cells];
+        indexOf = new int[cells];
+        weights = new int[g.length][];
+        Arrays.fill(groupOf, -1);
+
+        for (int j = 0; j < g.length; j++) {
+            final int k = g[j].length;
+            weights[j] = new int[k];
+            int weight = 1;
+            for (int i = k - 1; i >= 0; i--) {
+                groupOf[g[j][i]] = j;
+                indexOf[g[j][i]] = i;
+                weights[j][i] = weight;
+                weight *= cells - i;
+            }
+        }
+    }
+
+    /**
+     * Builds the databases of the given groups of tiles for N-by-N boards.
+     * Groups must be disjoint and contain tiles from 1 to N*N - 1.
+     *
+     * @param N
+     * @param tileGroups
+     * @return
+     */
+    public static PatternDatabase build(final int N, final int[][] tileGroups) {
+        if (N < 2 || N > 8)
+            throw new IllegalArgumentException("Dimension must be 2 to 8");
+
+        final boolean[] seen = new boolean[N * N];
+        final int[][] copy = new int[tileGroups.length][];
+        final byte[][] tables = new byte[tileGroups.length][];
+
+        for (int g = 0; g < tileGroups.length; g++) {
+            copy[g] = tileGroups[g].clone();
+            for (final int tile : copy[g]) {
+                if (tile <= 0 || tile >= N * N || seen[tile])
+                    throw new IllegalArgumentException("Bad tile " + tile
+                            + " in group " + g);
+                seen[tile] = true;
+            }
+            tables[g] = buildTable(N, copy[g]);
+        }
+
+        return new PatternDatabase(N, copy, tables);
+    }
+
+    /**
+     * Usual partition of the tiles of N-by-N boards: all the tiles for N = 2,
+     * 4-4 for N = 3 and 6-6-3 for N = 4.
+     *
+     * @param N
+     * @return
+     */
+    public static int[][] defaultGroups(final int N) {
+        if (N == 2) {
+            return new int[][] { { 1, 2, 3 } };
+        } else if (N == 3) {
+            return new int[][] { { 1, 2, 3, 4 }, { 5, 6, 7, 8 } };
+        } else if (N == 4) {
+            return new int[][] { { 1, 2, 5, 6, 9, 13 },
+                    { 3, 4, 7, 8, 11, 12 }, { 10, 14, 15 } };
+        }
+        throw new IllegalArgumentException("No default groups for N = " + N);
+    }
+
+    /**
+     * Board dimension N
+     *
+     * @return
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Sum over the groups of the moves needed by their tiles, or the
+     * Manhattan distance if it happens to be higher.
+     */
+    public int estimate(final Board board) {
+        if (board.dimension() != dimension)
+            throw new IllegalArgumentException("Board dimension must be "
+                    + dimension);
+
+        final int cells = dimension * dimension;
+        int sum = 0;
+
+        // Same number as rank(), but the digits are found while scanning the
+        // board in order, so no positions array is needed: the digit of the
+        // i-th tile is its position less the tiles before it in the group
+        // that are also before it on the board (the ones already seen).
+        for (int g = 0; g < groups.length; g++) {
+            long seen = 0;
+            int rank = 0;
+
+            for (int p = 0; p < cells; p++) {
+                final int tile = board.block(p);
+                if (groupOf[tile] != g) {
+                    continue;
+                }
+                final int i = indexOf[tile];
+                final int digit = p - Long.bitCount(seen & ((1L << i) - 1));
+                rank += digit * weights[g][i];
+                seen |= 1L << i;
+            }
+            sum += tables[g][rank] & 0xFF;
+        }
+
+        return Math.max(sum, board.manhattan());
+    }
+
+    /**
+     * Number of the placement of k tiles at the given distinct positions out
+     * of n cells, from 0 to n!/(n-k)! - 1.
+     */
+    private static int rank(final int[] positions, final int k, final int n) {
+        long used = 0;
+        int rank = 0;
+
+        for (int i = 0; i < k; i++) {
+            final int p = positions[i];
+            // index of the cell among the ones still free
+            final int digit = p - Long.bitCount(used & ((1L << p) - 1));
+            rank = rank * (n - i) + digit;
+            used |= 1L << p;
+        }
+
+        return rank;
+    }
+
+    /**
+     * Positions of the k tiles of the given placement number, reverse of
+     * rank().
+     */
+    private static void unrank(final int rank, final int k, final int n,
+            final int[] positions) {
+        int rest = rank;
+
+        for (int i = k - 1; i >= 0; i--) {
+            positions[i] = rest % (n - i);
+            rest /= n - i;
+        }
+
+        long used = 0;
+        for (int i = 0; i < k; i++) {
+            // the digit-th free cell
+            int p = 0;
+            int free = positions[i];
+            while (free > 0 || (used & (1L << p)) != 0) {
+                if ((used & (1L << p)) == 0) {
+                    free--;
+                }
+                p++;
+            }
+            positions[i] = p;
+            used |= 1L << p;
+        }
+    }
+
+    /**
+     * Breadth-first search from the goal over (placement, blank), one cost
+     * level at a time: moving a tile of the group costs 1, moving the blank
+     * into any other cell is free, so the states of the same level are found
+     * with a depth-first flood of the free moves.
+     */
+    private static byte[] buildTable(final int N, final int[] tiles) {
+        final int n = N * N;
+        final int k = tiles.length;
+
+        long placements = 1;
+        for (int i = 0; i < k; i++) {
+            placements *= n - i;
+        }
+        if (placements * n > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Group is too big");
+
+        final int count = (int) placements;
+        final byte[] cost = new byte[count * n];
+        Arrays.fill(cost, UNSEEN);
+
+        final int[] positions = new int[k];
+        for (int i = 0; i < k; i++) {
+            positions[i] = tiles[i] - 1; // tile t is home at t - 1
+        }
+        cost[rank(positions, k, n) * n + n - 1] = 0;
+
+        final int[] tileAt = new int[n]; // index in the group, or -1
+        final int[] blanks = new int[n]; // flood stack
+        final int[] moves = new int[4];
+
+        for (int level = 0;; level++) {
+            if (level == 255)
+                throw new IllegalStateException("Too many moves");
+
+            boolean found = false;
+
+            for (int r = 0; r < count; r++) {
+                final int base = r * n;
+                boolean decoded = false;
+
+                for (int b = 0; b < n; b++) {
+                    if (cost[base + b] != (byte) level) {
+                        continue;
+                    }
+                    found = true;
+
+                    if (!decoded) {
+                        unrank(r, k, n, positions);
+                        Arrays.fill(tileAt, -1);
+                        for (int i = 0; i < k; i++) {
+                            tileAt[positions[i]] = i;
+                        }
+                        decoded = true;
+                    }
+
+                    int top = 0;
+                    blanks[top++] = b;
+
+                    while (top > 0) {
+                        final int blank = blanks[--top];
+                        final int m = moves(blank, N, moves);
+
+                        for (int j = 0; j < m; j++) {
+                            final int cell = moves[j];
+                            final int i = tileAt[cell];
+
+                            if (i < 0) {
+                                // free move: same placement, blank moved
+                                if (cost[base + cell] == UNSEEN) {
+                                    cost[base + cell] = (byte) level;
+                                    blanks[top++] = cell;
+                                }
+                            } else {
+                                // the tile moves into the blank
+                                positions[i] = blank;
+                                final int next = rank(positions, k, n) * n
+                                        + cell;
+                                positions[i] = cell;
+                                if (cost[next] == UNSEEN) {
+                                    cost[next] = (byte) (level + 1);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (!found) {
+                break;
+            }
+        }
+
+        // the blank can be anywhere: keep the cheapest
+        final byte[] table = new byte[count];
+        for (int r = 0; r < count; r++) {
+            int best = 255;
+            for (int b = 0; b < n; b++) {
+                final int c = cost[r * n + b] & 0xFF;
+                if (c < best) {
+                    best = c;
+                }
+            }
+            table[r] = (byte) best;
+        }
+
+        return table;
+    }
+
+    /**
+     * Cells next to the given one, written into out.
+     *
+     * @return number of cells written
+     */
+    private static int moves(final int cell, final int N, final int[] out) {
+        final int row = cell / N;
+        final int column = cell % N;
+        int m = 0;
+
+        if (row > 0) {
+            out[m++] = cell - N;
+        }
+        if (row < N - 1) {
+            out[m++] = cell + N;
+        }
+        if (column > 0) {
+            out[m++] = cell - 1;
+        }
+        if (column < N - 1) {
+            out[m++] = cell + 1;
+        }
+
+        return m;
+    }
+
+    /**
+     * Writes the databases to the given file.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void save(final Path file) throws IOException {
+        final DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)));
+        try {
+            out.writeInt(dimension);
+            out.writeInt(groups.length);
+            for (int g = 0; g < groups.length; g++) {
+                out.writeInt(groups[g].length);
+                for (final int tile : groups[g]) {
+                    out.writeInt(tile);
+                }
+                out.writeInt(tables[g].length);
+                out.write(tables[g]);
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Reads databases written by save().
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static PatternDatabase load(final Path file) throws IOException {
+        final DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)));
+        try {
+            final int n = in.readInt();
+            final int[][] groups = new int[in.readInt()][];
+            final byte[][] tables = new byte[groups.length][];
+
+            for (int g = 0; g < groups.length; g++) {
+                groups[g] = new int[in.readInt()];
+                for (int i = 0; i < groups[g].length; i++) {
+                    groups[g][i] = in.readInt();
+                }
+                tables[g] = new byte[in.readInt()];
+                in.readFully(tables[g]);
+            }
+
+            return new PatternDatabase(n, groups, tables);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Builds the default databases for N-by-N boards and saves them
+     *
+     * @param args
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        final int N = Integer.parseInt(args[0]);
+        final long start = System.currentTimeMillis();
+        final PatternDatabase database = build(N, defaultGroups(N));
+
+        database.save(Paths.get(args[1]));
+        System.out.println("Built in " + (System.currentTimeMillis() - start)
+                + " ms");
+    }
+
+}
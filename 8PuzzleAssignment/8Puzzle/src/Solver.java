@@ -1,50 +1,34 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class Solver {
 
+    // Default limit of boards kept as expanded: 4M, 96 MB of hash table
+    public static final int CLOSED_LIMIT = 1 << 22;
+
+    private final Heuristic heuristic;
     private final SearchNode gameTree;
-    private final MinPQ<SearchNode> priorityQueue;
+    private final BucketQueue<SearchNode> priorityQueue;
+    // moves to every expanded board, null if not packed
+    private final LongIntHashMap closed;
     private final SearchNode solution;
+    private long expanded;
+    private long duplicates;
 
-    private class SearchNode implements Comparable<SearchNode> {
+    private class SearchNode {
         private final Board board;
         private final SearchNode previousNode;
         private final int moves;
+        private final int estimate; // moves left according to the heuristic
+        private final int priority; // moves + estimate
 
         // Constructs a SearchNode
         public SearchNode(final Board b, final SearchNode previous, final int m) {
             this.board = b;
             this.previousNode = previous;
             this.moves = m;
-        }
-
-        // Overrides the natural order comparison
-        public int compareTo(final SearchNode that) {
-            if (this.board.manhattan() + this.moves < that.board.manhattan()
-                    + that.moves) {
-                return -1;
-            }
-
-            if (this.board.manhattan() + this.moves > that.board.manhattan()
-                    + that.moves) {
-                return 1;
-            }
-
-            if (this.board.manhattan() < that.board.manhattan()) {
-                return -1;
-            }
-
-            if (this.board.manhattan() > that.board.manhattan()) {
-                return 1;
-            }
-
-            if (this.board.hamming() < that.board.hamming()) {
-                return -1;
-            }
-
-            if (this.board.hamming() > that.board.hamming()) {
-                return 1;
-            }
-
-            return 0;
+            this.estimate = heuristic.estimate(b);
+            this.priority = m + estimate;
         }
     }
 
@@ -54,56 +38,81 @@ public class Solver {
      * @param initial
      */
     public Solver(final Board initial) {
+        this(initial, Heuristic.MANHATTAN);
+    }
+
+    /**
+     * Find a solution to the initial board (using the A* algorithm) guided by
+     * the given heuristic, e.g. a PatternDatabase
+     * 
+     * @param initial
+     * @param h
+     */
+    public Solver(final Board initial, final Heuristic h) {
+        this(initial, h, CLOSED_LIMIT);
+    }
+
+    /**
+     * Find a solution to the initial board (using the A* algorithm) guided by
+     * the given heuristic, remembering at most closedLimit expanded boards.
+     * Boards up to 4x4 are expanded again only when reached by a shorter path
+     * (never with a consistent heuristic) while the limit is not reached,
+     * bigger ones can be expanded again when reached by any other path.
+     * 
+     * @param initial
+     * @param h
+     * @param closedLimit
+     */
+    public Solver(final Board initial, final Heuristic h,
+            final int closedLimit) {
+        heuristic = h;
         gameTree = new SearchNode(initial, null, 0);
-        priorityQueue = new MinPQ<SearchNode>();
+        priorityQueue = new BucketQueue<SearchNode>();
+        if (initial.isPacked()) {
+            closed = new LongIntHashMap(closedLimit);
+        } else {
+            closed = null;
+        }
+        expanded = 0;
+        duplicates = 0;
 
-        // If the initial board is the goal, work is done
+        // If the initial board is the goal, work is done, and if it cannot
+        // reach it there is nothing to search
         if (initial.isGoal()) {
             solution = gameTree;
+        } else if (!initial.isSolvable()) {
+            solution = null;
         } else {
-            // Insert initial search node and its twin
-            priorityQueue.insert(gameTree);
-            final SearchNode twinTree = new SearchNode(initial.twin(), null, 0);
-            priorityQueue.insert(twinTree);
+            insert(gameTree);
             solution = solveBoard();
         }
     }
 
     private SearchNode solveBoard() {
-        final SearchNode solved;
-
         // Delete from PQ the search node with the minimum priority
         SearchNode minSN = priorityQueue.delMin();
 
         // Repeat until search node dequeued corresponds to a goal board.
         while (!minSN.board.isGoal()) {
-            // Insert all neighboring search nodes
-            insertNeighborsInPQ(minSN);
+            // Insert all neighboring search nodes, unless the board was
+            // already expanded through a path at least as short. With a
+            // consistent heuristic, the first time a board is dequeued is
+            // through one of its shortest paths, but an inconsistent one can
+            // reach it again through a shorter path, so it is reopened then
+            if (closed == null) {
+                expanded++;
+                insertNeighborsInPQ(minSN);
+            } else if (!isClosed(minSN.board.packed(), minSN.moves)) {
+                closed.put(minSN.board.packed(), minSN.moves);
+                expanded++;
+                insertNeighborsInPQ(minSN);
+            } else {
+                duplicates++;
+            }
             minSN = priorityQueue.delMin();
         }
 
-        // The puzzle is solvable only if the goal board was generated through
-        // the original initial board and not its twin.
-        if (isGameTree(minSN)) {
-            solved = minSN;
-        } else {
-            solved = null;
-        }
-
-        return solved;
-    }
-    
-    
-    private boolean isGameTree(final SearchNode node) {
-        // Copy to a new variable to avoid modification of the parameter 
-        // (so course's checkstyle stop complaining)
-        SearchNode current = node;
-        
-        while (current.previousNode != null) {
-            current = current.previousNode;
-        }
-        
-        return current.board == gameTree.board;
+        return minSN;
     }
 
     /**
@@ -113,23 +122,102 @@ public class Solver {
      * @param current
      */
     private void insertNeighborsInPQ(final SearchNode dequeued) {
+        final int N = dequeued.board.dimension();
+        final int blank = dequeued.board.blank();
+        final int row = blank / N;
+        final int column = blank % N;
 
-        for (Board n : dequeued.board.neighbors()) {
-            // Critical optimization: don't insert the neighbor that is equal to
-            // the previous search node
-            if (!isRepeated(dequeued, n)) {
-                priorityQueue.insert(new SearchNode(n, dequeued,
-                        dequeued.moves + 1));
-            }
+        // Slide every block next to the empty one, without going through the
+        // Stack of neighbors()
+        if (row > 0) {
+            insertNeighborInPQ(dequeued, blank - N);
+        }
+        if (row < N - 1) {
+            insertNeighborInPQ(dequeued, blank + N);
+        }
+        if (column > 0) {
+            insertNeighborInPQ(dequeued, blank - 1);
+        }
+        if (column < N - 1) {
+            insertNeighborInPQ(dequeued, blank + 1);
         }
     }
 
-    private boolean isRepeated(final SearchNode dequeued, final Board board) {
+    private void insertNeighborInPQ(final SearchNode dequeued,
+            final int position) {
+        // Critical optimization: don't insert the neighbor that is equal to
+        // the previous search node
+        if (isRepeated(dequeued, position)) {
+            return;
+        }
+
+        // Nor the ones already expanded through a path at least as short,
+        // checked before building the board
+        if (closed != null
+                && isClosed(Board.slide(dequeued.board.packed(),
+                        dequeued.board.blank(), position),
+                        dequeued.moves + 1)) {
+            duplicates++;
+            return;
+        }
+
+        insert(new SearchNode(dequeued.board.slide(position), dequeued,
+                dequeued.moves + 1));
+    }
+
+    /**
+     * Queue the search node by its priority, the closest to the goal first
+     * among the nodes of equal priority
+     */
+    private void insert(final SearchNode node) {
+        priorityQueue.insert(node, node.priority, node.estimate);
+    }
+
+    /**
+     * Was the packed board expanded already, in at most the given moves?
+     */
+    private boolean isClosed(final long packed, final int moves) {
+        return closed.get(packed, Integer.MAX_VALUE) <= moves;
+    }
+
+    private boolean isRepeated(final SearchNode dequeued, final int position) {
         if (dequeued.previousNode == null) {
             return false;
         }
 
-        return dequeued.previousNode.board.equals(board);
+        // Moving the block at position back is undoing the last move if the
+        // empty block was there before it
+        return dequeued.previousNode.board.blank() == position;
+    }
+
+    /**
+     * Number of search nodes expanded (their neighbors inserted)
+     * 
+     * @return
+     */
+    public long expanded() {
+        return expanded;
+    }
+
+    /**
+     * Number of boards found again after being expanded, and skipped
+     * 
+     * @return
+     */
+    public long duplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Number of distinct boards remembered as expanded
+     * 
+     * @return
+     */
+    public int closedBoards() {
+        if (closed == null) {
+            return 0;
+        }
+        return closed.size();
     }
 
     /**
@@ -193,8 +281,19 @@ public class Solver {
                 blocks[i][j] = in.readInt();
         Board initial = new Board(blocks);
 
-        // solve the puzzle
-        Solver solver = new Solver(initial);
+        // solve the puzzle, with the pattern databases of the file given after
+        // the board if any
+        Solver solver;
+        if (args.length > 1) {
+            try {
+                solver = new Solver(initial,
+                        PatternDatabase.load(Paths.get(args[1])));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read " + args[1], e);
+            }
+        } else {
+            solver = new Solver(initial);
+        }
 
         // print solution to standard output
         if (!solver.isSolvable())
@@ -1,3 +1,7 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -158,9 +162,10 @@ public class BoardTest {
         board = new Board(blocks2D);
         Board twin = board.twin();
 
-        // Do expected changes
-        blocks2D[0][0] = 1;
-        blocks2D[0][1] = 0;
+        // Do expected changes: the empty block is in the first row, so the
+        // last two blocks of the last row are exchanged
+        blocks2D[N - 1][N - 2] = N * N - 1;
+        blocks2D[N - 1][N - 1] = N * N - 2;
 
         Assert.assertEquals(toString(blocks2D, N), twin.toString());
     }
@@ -258,6 +263,148 @@ public class BoardTest {
         Assert.assertEquals(2, numberNeighbors);
     }
 
+    /**
+     * Test method for {@link Board#neighbors()}: the distances kept from the
+     * original board are the ones of a board built from scratch.
+     */
+    @Test
+    public final void testNeighborsHeuristics() {
+        board = new Board(new int[][] { { 8, 1, 3 }, { 4, 0, 2 },
+                { 7, 6, 5 } });
+
+        for (Board b : board.neighbors()) {
+            final Board rebuilt = copy(b);
+            Assert.assertEquals(rebuilt.hamming(), b.hamming());
+            Assert.assertEquals(rebuilt.manhattan(), b.manhattan());
+        }
+
+        final Board twin = board.twin();
+        Assert.assertEquals(copy(twin).hamming(), twin.hamming());
+        Assert.assertEquals(copy(twin).manhattan(), twin.manhattan());
+    }
+
+    /**
+     * Test method for {@link Board#hashCode()}.
+     */
+    @Test
+    public final void testHashCode() {
+        board = new Board(new int[][] { { 8, 1, 3 }, { 4, 0, 2 },
+                { 7, 6, 5 } });
+
+        for (Board b : board.neighbors()) {
+            Assert.assertEquals(copy(b), b);
+            Assert.assertEquals(copy(b).hashCode(), b.hashCode());
+            Assert.assertFalse(board.equals(b));
+        }
+    }
+
+    /**
+     * Test method for {@link Board#neighbors()} on a board too big to be
+     * packed in a long.
+     */
+    @Test
+    public final void testNeighborsNotPacked() {
+        final int n = 5;
+        final int[][] tiles = new int[n][n];
+        for (int i = 0; i < n * n; i++) {
+            tiles[i / n][i % n] = (i + 7) % (n * n);
+        }
+        board = new Board(tiles);
+
+        int numberNeighbors = 0;
+        for (Board b : board.neighbors()) {
+            final Board rebuilt = copy(b);
+            Assert.assertEquals(rebuilt, b);
+            Assert.assertEquals(rebuilt.hashCode(), b.hashCode());
+            Assert.assertEquals(rebuilt.hamming(), b.hamming());
+            Assert.assertEquals(rebuilt.manhattan(), b.manhattan());
+            numberNeighbors++;
+        }
+        Assert.assertEquals(4, numberNeighbors);
+        Assert.assertEquals(copy(board), board);
+    }
+
+    /**
+     * Test method for {@link Board#isSolvable()}.
+     */
+    @Test
+    public final void testIsSolvableOddDimension() {
+        Assert.assertTrue(new Board(new int[][] { { 8, 1, 3 }, { 4, 0, 2 },
+                { 7, 6, 5 } }).isSolvable());
+        Assert.assertFalse(new Board(new int[][] { { 1, 2, 3 }, { 4, 5, 6 },
+                { 8, 7, 0 } }).isSolvable());
+        Assert.assertTrue(new Board(new int[][] { { 0 } }).isSolvable());
+    }
+
+    /**
+     * Test method for {@link Board#isSolvable()}.
+     */
+    @Test
+    public final void testIsSolvableEvenDimension() {
+        // Build a goal board
+        for (int row = 0; row < N; row++) {
+            for (int column = 0; column < N; column++) {
+                blocks2D[row][column] = row * N + column + 1;
+            }
+        }
+        blocks2D[N - 1][N - 1] = 0;
+        Assert.assertTrue(new Board(blocks2D).isSolvable());
+
+        // Moving the empty block up changes its row but no inversion
+        blocks2D[N - 1][N - 1] = blocks2D[N - 2][N - 1];
+        blocks2D[N - 2][N - 1] = 0;
+        Assert.assertTrue(new Board(blocks2D).isSolvable());
+
+        // Exchanging two blocks is one inversion
+        blocks2D[0][0] = 2;
+        blocks2D[0][1] = 1;
+        Assert.assertFalse(new Board(blocks2D).isSolvable());
+
+        Assert.assertFalse(new Board(new int[][] { { 2, 1 }, { 3, 0 } })
+                .isSolvable());
+        Assert.assertTrue(new Board(new int[][] { { 0, 1 }, { 3, 2 } })
+                .isSolvable());
+    }
+
+    /**
+     * Test method for {@link Board#isSolvable()}: boards reached from the goal
+     * are solvable, their twins are not.
+     */
+    @Test
+    public final void testIsSolvableRandom() {
+        final Random random = new Random(9);
+
+        for (int n = 2; n <= 5; n++) {
+            final int[][] tiles = new int[n][n];
+            for (int i = 0; i < n * n; i++) {
+                tiles[i / n][i % n] = (i + 1) % (n * n);
+            }
+            board = new Board(tiles);
+
+            for (int i = 0; i < 200; i++) {
+                final List<Board> neighbors = new ArrayList<Board>();
+                for (Board b : board.neighbors()) {
+                    neighbors.add(b);
+                }
+                board = neighbors.get(random.nextInt(neighbors.size()));
+
+                Assert.assertTrue(board.isSolvable());
+                Assert.assertFalse(board.twin().isSolvable());
+            }
+        }
+    }
+
+    private static Board copy(final Board b) {
+        final int n = b.dimension();
+        final int[][] tiles = new int[n][n];
+
+        for (int i = 0; i < n * n; i++) {
+            tiles[i / n][i % n] = b.block(i);
+        }
+
+        return new Board(tiles);
+    }
+
     public String toString(int[][] tiles, int size) {
         StringBuilder s = new StringBuilder();
         s.append(size + "\n");
@@ -0,0 +1,34 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boards shared by the tests.
+ * 
+ * @author esloho
+ *
+ */
+final class Boards {
+
+    private Boards() {
+    }
+
+    /**
+     * 3-by-3 board reached from the goal by the given number of random moves.
+     */
+    static Board scramble(final Random random, final int moves) {
+        Board board = new Board(new int[][] { { 1, 2, 3 }, { 4, 5, 6 },
+                { 7, 8, 0 } });
+
+        for (int i = 0; i < moves; i++) {
+            final List<Board> neighbors = new ArrayList<Board>();
+            for (final Board n : board.neighbors()) {
+                neighbors.add(n);
+            }
+            board = neighbors.get(random.nextInt(neighbors.size()));
+        }
+
+        return board;
+    }
+
+}
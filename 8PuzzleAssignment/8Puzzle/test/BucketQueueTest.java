@@ -0,0 +1,96 @@
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class BucketQueueTest {
+
+    /**
+     * Test method for {@link BucketQueue#delMin()}.
+     */
+    @Test
+    public final void testOrder() {
+        final BucketQueue<String> queue = new BucketQueue<String>();
+
+        queue.insert("f5h1", 5, 1);
+        queue.insert("f3h2", 3, 2);
+        queue.insert("f3h0", 3, 0);
+        queue.insert("f40h7", 40, 7);
+        queue.insert("f3h2 last", 3, 2);
+
+        Assert.assertEquals(5, queue.size());
+        Assert.assertEquals("f3h0", queue.delMin());
+        // LIFO among equal f and h
+        Assert.assertEquals("f3h2 last", queue.delMin());
+        Assert.assertEquals("f3h2", queue.delMin());
+        Assert.assertEquals("f5h1", queue.delMin());
+        Assert.assertEquals("f40h7", queue.delMin());
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Test method for {@link BucketQueue#insert(Object, int, int)}: an item
+     * lower than the last one removed comes out next.
+     */
+    @Test
+    public final void testInsertBelowMin() {
+        final BucketQueue<Integer> queue = new BucketQueue<Integer>();
+
+        queue.insert(10, 10, 0);
+        queue.insert(20, 20, 100);
+        Assert.assertEquals(Integer.valueOf(10), queue.delMin());
+
+        queue.insert(2, 2, 50);
+        queue.insert(1, 2, 3);
+        Assert.assertEquals(Integer.valueOf(1), queue.delMin());
+        Assert.assertEquals(Integer.valueOf(2), queue.delMin());
+        Assert.assertEquals(Integer.valueOf(20), queue.delMin());
+    }
+
+    /**
+     * Test method for {@link BucketQueue#delMin()}.
+     */
+    @Test
+    public final void testMany() {
+        final BucketQueue<Integer> queue = new BucketQueue<Integer>();
+
+        for (int i = 0; i < 10000; i++) {
+            queue.insert(i, (i * 7919) % 300, i % 3);
+        }
+
+        int previousF = -1;
+        int previousH = -1;
+        for (int i = 0; i < 10000; i++) {
+            final int item = queue.delMin();
+            final int f = (item * 7919) % 300;
+            final int h = item % 3;
+
+            Assert.assertTrue(f > previousF
+                    || (f == previousF && h >= previousH));
+            previousF = f;
+            previousH = h;
+        }
+        Assert.assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * Test method for {@link BucketQueue#delMin()}.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public final void testDelMinEmpty() {
+        new BucketQueue<String>().delMin();
+    }
+
+    /**
+     * Test method for {@link BucketQueue#insert(Object, int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testInsertNegative() {
+        new BucketQueue<String>().insert("x", -1, 0);
+    }
+
+}
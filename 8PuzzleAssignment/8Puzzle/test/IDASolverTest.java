@@ -0,0 +1,91 @@
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class IDASolverTest {
+
+    private IDASolver solver;
+    private int[][] blocks2D;
+
+    /**
+     * Test method for {@link IDASolver#IDASolver(Board)}.
+     */
+    @Test
+    public final void testSolverGoal() {
+        blocks2D = new int[][] { { 1, 2, 3 }, { 4, 5, 6 }, { 7, 8, 0 } };
+        solver = new IDASolver(new Board(blocks2D));
+        Assert.assertTrue(solver.isSolvable());
+        Assert.assertEquals(0, solver.moves());
+    }
+
+    /**
+     * Test method for {@link IDASolver#IDASolver(Board)}.
+     */
+    @Test
+    public final void testSolverUnsolvable() {
+        blocks2D = new int[][] { { 1, 2, 3 }, { 4, 5, 6 }, { 8, 7, 0 } };
+        solver = new IDASolver(new Board(blocks2D));
+        Assert.assertFalse(solver.isSolvable());
+        Assert.assertEquals(-1, solver.moves());
+        Assert.assertNull(solver.solution());
+    }
+
+    /**
+     * Test method for {@link IDASolver#moves()}.
+     */
+    @Test
+    public final void testMoves() {
+        blocks2D = new int[][] { { 0, 1, 3 }, { 4, 2, 5 }, { 7, 8, 6 } };
+        solver = new IDASolver(new Board(blocks2D));
+        Assert.assertEquals(4, solver.moves());
+    }
+
+    /**
+     * Test method for {@link IDASolver#moves()}: same as A*.
+     */
+    @Test
+    public final void testMovesLikeSolver() {
+        final Random random = new Random(11);
+
+        for (int i = 0; i < 30; i++) {
+            final Board board = Boards.scramble(random, 10 + random.nextInt(40));
+            Assert.assertEquals(new Solver(board).moves(),
+                    new IDASolver(board).moves());
+        }
+    }
+
+    /**
+     * Test method for {@link IDASolver#solution()}.
+     */
+    @Test
+    public final void testSolution() {
+        final Board board = Boards.scramble(new Random(5), 40);
+        solver = new IDASolver(board);
+
+        Board previous = null;
+        int n = 0;
+        for (final Board b : solver.solution()) {
+            if (previous == null) {
+                Assert.assertEquals(board, b);
+            } else {
+                boolean neighbor = false;
+                for (final Board next : previous.neighbors()) {
+                    neighbor |= next.equals(b);
+                }
+                Assert.assertTrue(neighbor);
+            }
+            previous = b;
+            n++;
+        }
+
+        // Expected boards: initial + number of moves
+        Assert.assertEquals(solver.moves() + 1, n);
+        Assert.assertTrue(previous.isGoal());
+    }
+
+}
@@ -0,0 +1,84 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class LongIntHashMapTest {
+
+    private static final int MISSING = -1;
+
+    /**
+     * Test method for {@link LongIntHashMap#put(long, int)}.
+     */
+    @Test
+    public final void testPutGet() {
+        final LongIntHashMap map = new LongIntHashMap(1 << 20);
+        final Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        final Random random = new Random(1);
+
+        // few distinct keys, so many are put twice
+        for (int i = 0; i < 100000; i++) {
+            final long key = random.nextInt(50000) * 0x100000001L;
+            map.put(key, i);
+            expected.put(key, i);
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 1000; key++) {
+            final Integer value = expected.get(key * 0x100000001L);
+            Assert.assertEquals(value == null ? MISSING : value.intValue(),
+                    map.get(key * 0x100000001L, MISSING));
+        }
+    }
+
+    /**
+     * Test method for {@link LongIntHashMap#put(long, int)}.
+     */
+    @Test
+    public final void testZero() {
+        final LongIntHashMap map = new LongIntHashMap(10);
+
+        Assert.assertEquals(MISSING, map.get(0, MISSING));
+        map.put(0, 7);
+        Assert.assertEquals(7, map.get(0, MISSING));
+        map.put(0, 3);
+        Assert.assertEquals(3, map.get(0, MISSING));
+        Assert.assertEquals(1, map.size());
+    }
+
+    /**
+     * Test method for {@link LongIntHashMap#isFull()}.
+     */
+    @Test
+    public final void testLimit() {
+        final LongIntHashMap map = new LongIntHashMap(3);
+
+        map.put(1, 1);
+        map.put(2, 2);
+        Assert.assertFalse(map.isFull());
+        map.put(3, 3);
+        Assert.assertTrue(map.isFull());
+
+        // new keys are not added any more, but known ones are still updated
+        map.put(4, 4);
+        Assert.assertEquals(MISSING, map.get(4, MISSING));
+        map.put(3, 0);
+        Assert.assertEquals(0, map.get(3, MISSING));
+        Assert.assertEquals(3, map.size());
+    }
+
+    /**
+     * Test method for {@link LongIntHashMap#LongIntHashMap(int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testBadLimit() {
+        new LongIntHashMap(0);
+    }
+
+}
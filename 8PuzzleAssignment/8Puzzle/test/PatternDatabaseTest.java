@@ -0,0 +1,133 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class PatternDatabaseTest {
+
+    private static PatternDatabase database;
+
+    @BeforeClass
+    public static void setUpBeforeClass() {
+        database = PatternDatabase.build(3, PatternDatabase.defaultGroups(3));
+    }
+
+    /**
+     * Test method for {@link PatternDatabase#estimate(Board)}.
+     */
+    @Test
+    public final void testEstimateGoal() {
+        final Board goal = new Board(new int[][] { { 1, 2, 3 }, { 4, 5, 6 },
+                { 7, 8, 0 } });
+        Assert.assertEquals(0, database.estimate(goal));
+    }
+
+    /**
+     * Test method for {@link PatternDatabase#estimate(Board)}.
+     */
+    @Test
+    public final void testEstimateOneMove() {
+        final Board board = new Board(new int[][] { { 1, 2, 3 }, { 4, 5, 6 },
+                { 7, 0, 8 } });
+        Assert.assertEquals(1, database.estimate(board));
+    }
+
+    /**
+     * Test method for {@link PatternDatabase#estimate(Board)}: never below
+     * Manhattan nor above the real number of moves.
+     */
+    @Test
+    public final void testEstimateIsAdmissible() {
+        final Random random = new Random(42);
+
+        for (int i = 0; i < 50; i++) {
+            final Board board = Boards.scramble(random, 10 + random.nextInt(30));
+            final int estimate = database.estimate(board);
+            final int moves = new Solver(board).moves();
+
+            Assert.assertTrue(estimate >= board.manhattan());
+            Assert.assertTrue(estimate <= moves);
+        }
+    }
+
+    /**
+     * Test method for {@link Solver#Solver(Board, Heuristic)}.
+     */
+    @Test
+    public final void testSolverWithDatabase() {
+        final Random random = new Random(7);
+
+        for (int i = 0; i < 20; i++) {
+            final Board board = Boards.scramble(random, 40);
+            final Solver solver = new Solver(board, database);
+            final int moves = new Solver(board).moves();
+
+            Assert.assertTrue(solver.isSolvable());
+            Assert.assertEquals(moves, solver.moves());
+
+            int n = 0;
+            for (final Board b : solver.solution()) {
+                n++;
+            }
+            Assert.assertEquals(moves + 1, n);
+        }
+    }
+
+    /**
+     * Test method for {@link Solver#Solver(Board, Heuristic)}.
+     */
+    @Test
+    public final void testSolverWithDatabaseUnsolvable() {
+        final Board board = new Board(new int[][] { { 1, 2, 3 }, { 4, 5, 6 },
+                { 8, 7, 0 } });
+        Assert.assertFalse(new Solver(board, database).isSolvable());
+    }
+
+    /**
+     * Test method for {@link PatternDatabase#save(Path)} and
+     * {@link PatternDatabase#load(Path)}.
+     */
+    @Test
+    public final void testSaveLoad() throws IOException {
+        final Path file = Files.createTempFile("puzzle", ".pdb");
+        try {
+            database.save(file);
+            final PatternDatabase loaded = PatternDatabase.load(file);
+            final Random random = new Random(3);
+
+            Assert.assertEquals(3, loaded.dimension());
+            for (int i = 0; i < 50; i++) {
+                final Board board = Boards.scramble(random, 30);
+                Assert.assertEquals(database.estimate(board),
+                        loaded.estimate(board));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Test method for {@link PatternDatabase#build(int, int[][])}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testBuildOverlappingGroups() {
+        PatternDatabase.build(3, new int[][] { { 1, 2 }, { 2, 3 } });
+    }
+
+    /**
+     * Test method for {@link PatternDatabase#estimate(Board)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testEstimateWrongDimension() {
+        database.estimate(new Board(new int[][] { { 1, 2 }, { 3, 0 } }));
+    }
+
+}
@@ -1,3 +1,5 @@
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -96,4 +98,54 @@ public class SolverTest {
         Assert.assertNull(solver.solution());
     }
 
+    /**
+     * Test method for {@link Solver#duplicates()}.
+     */
+    @Test
+    public final void testClosedSet() {
+        blocks2D = new int[][]{ { 8, 1, 3 }, { 4, 0, 2 }, { 7, 6, 5} };
+        solver = new Solver(new Board(blocks2D));
+
+        Assert.assertEquals(solver.expanded(), solver.closedBoards());
+        Assert.assertTrue(solver.duplicates() > 0);
+    }
+
+    /**
+     * Test method for {@link Solver#Solver(Board, Heuristic, int)}.
+     */
+    @Test
+    public final void testClosedSetLimit() {
+        blocks2D = new int[][]{ { 8, 1, 3 }, { 4, 0, 2 }, { 7, 6, 5} };
+        final Board board = new Board(blocks2D);
+        final Solver limited = new Solver(board, Heuristic.MANHATTAN, 5);
+
+        Assert.assertEquals(5, limited.closedBoards());
+        Assert.assertEquals(new Solver(board).moves(), limited.moves());
+    }
+
+    /**
+     * Test method for {@link Solver#Solver(Board, Heuristic)}: an admissible
+     * but inconsistent heuristic, Manhattan for about one board in five and 0
+     * for the others, still gives the shortest solutions.
+     */
+    @Test
+    public final void testInconsistentHeuristic() {
+        final Heuristic uneven = new Heuristic() {
+            public int estimate(final Board board) {
+                final long hash = board.packed() * 0x9E3779B97F4A7C15L;
+                if ((hash >>> 40) % 5 == 0) {
+                    return board.manhattan();
+                }
+                return 0;
+            }
+        };
+
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 300; trial++) {
+            final Board board = Boards.scramble(random, 10 + random.nextInt(30));
+            Assert.assertEquals(new Solver(board).moves(), new Solver(board,
+                    uneven).moves());
+        }
+    }
+
 }
@@ -0,0 +1,436 @@
+/**
+ * Execution: java ClusterLabeler [-rows] input.txt
+ *
+ * Dependencies: SiteBitSet.java
+ *
+ * Hoshen-Kopelman labeling of a static open/closed grid, streamed row by row.
+ * It tells whether the grid percolates and how many clusters (components of
+ * open sites) of each size there are, without opening the sites one at a time
+ * through Percolation.
+ *
+ * Only two rows of labels are kept, plus a union-find over the labels of the
+ * clusters that reach the current row. After every row the labels still in
+ * use are renumbered from 0 and the clusters that did not reach it are
+ * finished: their sizes go to the histogram and their labels are reused. So
+ * the memory is O(columns) whatever the number of rows, and grids bigger than
+ * RAM can be labeled straight from a file.
+ *
+ * Two input formats are read:
+ * - the format of percolation-testing (N followed by "row column" pairs of the
+ * open sites, from 1), which is in no particular order and is therefore
+ * loaded into a N-by-N bitset first
+ * - a row format for streaming: the number of columns, then one line per row
+ * with a 1 for every open site and a 0 for every closed one (whitespace is
+ * ignored)
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamTokenizer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class ClusterLabeler {
+
+    private static final int CLOSED = -1; // label of a closed site
+
+    private final int columns;
+    private int[] previous; // labels of the last row added
+    private int[] current; // labels of the row being added
+    private final int[] parent; // union-find over the labels
+    private long[] size; // size[root] = sites of the cluster
+    private boolean[] top; // top[root] = cluster touches the first row
+    private long[] nextSize; // scratch for renumbering the labels
+    private boolean[] nextTop;
+    private final int[] renumbered;
+    private int carried; // labels 0..carried-1 reach the last row added
+
+    private long rows;
+    private boolean finished;
+    private boolean percolates;
+    private long clusters;
+    private long largest;
+    private final SortedMap<Long, Long> sizes; // size -> number of clusters
+
+    /**
+     * Prepares the labeling of a grid with the given number of columns.
+     */
+    public ClusterLabeler(final int columns) {
+        if (columns <= 0)
+            throw new IllegalArgumentException(
+                    "Argument must be greater than 0");
+
+        // a row holds at most (columns + 1) / 2 clusters, carried or new
+        final int labels = columns + 1;
+
+        this.columns = columns;
+        previous = new int[columns];
+        current = new int[columns];
+        parent = new int[labels];
+        size = new long[labels];
+        top = new boolean[labels];
+        nextSize = new long[labels];
+        nextTop = new boolean[labels];
+        renumbered = new int[labels];
+        carried = 0;
+
+        for (int c = 0; c < columns; c++) {
+            previous[c] = CLOSED;
+        }
+
+        rows = 0;
+        finished = false;
+        percolates = false;
+        clusters = 0;
+        largest = 0;
+        sizes = new TreeMap<Long, Long>();
+    }
+
+    /**
+     * Adds the next row of the grid, open[c] telling whether the site in
+     * column c is open.
+     */
+    public void addRow(final boolean[] open) {
+        if (finished)
+            throw new IllegalStateException("Grid is already finished");
+        if (open.length != columns)
+            throw new IllegalArgumentException("Row length does not match");
+
+        int next = carried;
+
+        for (int c = 0; c < columns; c++) {
+            if (!open[c]) {
+                current[c] = CLOSED;
+                continue;
+            }
+
+            final int up = previous[c];
+            final int left = c > 0 ? current[c - 1] : CLOSED;
+            final int label;
+
+            if (up == CLOSED && left == CLOSED) {
+                label = next++;
+                parent[label] = label;
+                size[label] = 0;
+                top[label] = rows == 0;
+            } else if (up == CLOSED) {
+                label = find(left);
+            } else if (left == CLOSED) {
+                label = find(up);
+            } else {
+                label = union(up, left);
+            }
+
+            size[label]++;
+            current[c] = label;
+        }
+
+        renumber(next);
+
+        final int[] swap = previous;
+        previous = current;
+        current = swap;
+        rows++;
+    }
+
+    /**
+     * Adds the next row of the grid from a bitset of the whole grid: the sites
+     * [from, from + columns) of open.
+     */
+    public void addRow(final SiteBitSet open, final int from) {
+        final boolean[] row = new boolean[columns];
+        int site = open.nextSetBit(from);
+
+        while (site != -1 && site < from + columns) {
+            row[site - from] = true;
+            site = open.nextSetBit(site + 1);
+        }
+
+        addRow(row);
+    }
+
+    /**
+     * Declares the last row added as the bottom of the grid: the clusters
+     * still reaching it are finished, and percolates() is known.
+     */
+    public ClusterLabeler finish() {
+        if (!finished) {
+            for (int label = 0; label < carried; label++) {
+                if (top[label]) {
+                    percolates = true;
+                }
+                record(size[label]);
+            }
+            carried = 0;
+            finished = true;
+        }
+        return this;
+    }
+
+    /**
+     * Number of rows added so far.
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * Checks whether some cluster joins the first and the last rows.
+     */
+    public boolean percolates() {
+        checkFinished();
+        return percolates;
+    }
+
+    /**
+     * Number of clusters of the grid.
+     */
+    public long clusters() {
+        checkFinished();
+        return clusters;
+    }
+
+    /**
+     * Number of sites of the biggest cluster, 0 if no site is open.
+     */
+    public long largestCluster() {
+        checkFinished();
+        return largest;
+    }
+
+    /**
+     * Cluster size distribution: number of clusters of every size found.
+     */
+    public SortedMap<Long, Long> clusterSizes() {
+        checkFinished();
+        return Collections.unmodifiableSortedMap(sizes);
+    }
+
+    private void checkFinished() {
+        if (!finished)
+            throw new IllegalStateException("Grid is not finished");
+    }
+
+    private int find(final int p) {
+        int current = p;
+
+        while (parent[current] != current) {
+            parent[current] = parent[parent[current]];
+            current = parent[current];
+        }
+
+        return current;
+    }
+
+    /**
+     * Merges the clusters of labels p and q.
+     *
+     * @return the root of the merged cluster
+     */
+    private int union(final int p, final int q) {
+        final int rootP = find(p);
+        final int rootQ = find(q);
+
+        if (rootP == rootQ) {
+            return rootP;
+        }
+
+        // keep the smaller label, so carried labels stay roots when possible
+        final int root = Math.min(rootP, rootQ);
+        final int child = Math.max(rootP, rootQ);
+
+        parent[child] = root;
+        size[root] += size[child];
+        top[root] |= top[child];
+        return root;
+    }
+
+    /**
+     * Gives the clusters in the current row the labels 0..k-1 and finishes
+     * the ones among labels [0, used) that did not reach it.
+     */
+    private void renumber(final int used) {
+        for (int label = 0; label < used; label++) {
+            renumbered[label] = CLOSED;
+        }
+
+        int k = 0;
+        for (int c = 0; c < columns; c++) {
+            if (current[c] != CLOSED) {
+                final int root = find(current[c]);
+                if (renumbered[root] == CLOSED) {
+                    renumbered[root] = k;
+                    nextSize[k] = size[root];
+                    nextTop[k] = top[root];
+                    k++;
+                }
+                current[c] = renumbered[root];
+            }
+        }
+
+        for (int label = 0; label < used; label++) {
+            if (parent[label] == label && renumbered[label] == CLOSED) {
+                record(size[label]);
+            }
+        }
+
+        final long[] swapSize = size;
+        size = nextSize;
+        nextSize = swapSize;
+        final boolean[] swapTop = top;
+        top = nextTop;
+        nextTop = swapTop;
+
+        for (int label = 0; label < k; label++) {
+            parent[label] = label;
+        }
+        carried = k;
+    }
+
+    private void record(final long clusterSize) {
+        clusters++;
+        largest = Math.max(largest, clusterSize);
+
+        final Long count = sizes.get(clusterSize);
+        sizes.put(clusterSize, count == null ? 1L : count + 1);
+    }
+
+    /**
+     * Labels a grid in the format of percolation-testing: N, then the row and
+     * column (from 1) of every open site. Sites are not in row order, so the
+     * N-by-N grid is held in a bitset while it is read.
+     */
+    public static ClusterLabeler fromSites(final Path file) throws IOException {
+        final BufferedReader reader = Files.newBufferedReader(file);
+        try {
+            final StreamTokenizer tokens = new StreamTokenizer(reader);
+            final int n = nextInt(tokens);
+            final SiteBitSet open = new SiteBitSet(n);
+
+            while (tokens.nextToken() != StreamTokenizer.TT_EOF) {
+                final int row = (int) tokens.nval;
+                final int column = nextInt(tokens);
+                if (row <= 0 || row > n || column <= 0 || column > n)
+                    throw new IOException("Site out of bounds: " + row + " "
+                            + column);
+                open.set((row - 1) * n + (column - 1));
+            }
+
+            final ClusterLabeler labeler = new ClusterLabeler(n);
+            for (int from = 0; from < open.size(); from += n) {
+                labeler.addRow(open, from);
+            }
+            return labeler.finish();
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Labels a grid in row format, streaming it: the number of columns, then
+     * every row as a line of 0s (closed) and 1s (open).
+     */
+    public static ClusterLabeler fromRows(final Path file) throws IOException {
+        final InputStream in = new BufferedInputStream(
+                Files.newInputStream(file));
+        try {
+            final int columns = readColumns(in);
+            final ClusterLabeler labeler = new ClusterLabeler(columns);
+            final boolean[] row = new boolean[columns];
+            int c = 0;
+            int b;
+
+            while ((b = in.read()) != -1) {
+                if (b == '0' || b == '1') {
+                    if (c == columns)
+                        throw new IOException("Row " + (labeler.rows() + 1)
+                                + " is too long");
+                    row[c++] = b == '1';
+                } else if (b == '\n') {
+                    if (c == columns) {
+                        labeler.addRow(row);
+                        c = 0;
+                    } else if (c != 0) {
+                        throw new IOException("Row " + (labeler.rows() + 1)
+                                + " is too short");
+                    }
+                } else if (!Character.isWhitespace(b)) {
+                    throw new IOException("Unexpected character: " + (char) b);
+                }
+            }
+            if (c == columns) { // last row without a line break
+                labeler.addRow(row);
+            } else if (c != 0) {
+                throw new IOException("Row " + (labeler.rows() + 1)
+                        + " is too short");
+            }
+
+            return labeler.finish();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static int nextInt(final StreamTokenizer tokens)
+            throws IOException {
+        if (tokens.nextToken() != StreamTokenizer.TT_NUMBER)
+            throw new IOException("Number expected at line " + tokens.lineno());
+        return (int) tokens.nval;
+    }
+
+    private static int readColumns(final InputStream in) throws IOException {
+        int columns = 0;
+        int b = in.read();
+
+        while (b != -1 && Character.isWhitespace(b)) {
+            b = in.read();
+        }
+        while (b >= '0' && b <= '9') {
+            columns = columns * 10 + (b - '0');
+            b = in.read();
+        }
+        while (b != -1 && b != '\n') { // rest of the header line
+            if (!Character.isWhitespace(b))
+                throw new IOException("Number of columns expected");
+            b = in.read();
+        }
+
+        if (columns <= 0)
+            throw new IOException("Number of columns expected");
+        return columns;
+    }
+
+    /**
+     * Takes the name of a grid file (-rows before it for the row format) and
+     * prints whether it percolates and its cluster size distribution.
+     */
+    public static void main(String[] args) throws IOException {
+        final ClusterLabeler labeler;
+        if (args[0].equals("-rows")) {
+            labeler = fromRows(Paths.get(args[1]));
+        } else {
+            labeler = fromSites(Paths.get(args[0]));
+        }
+
+        System.out.println("percolates = " + labeler.percolates());
+        System.out.println("clusters   = " + labeler.clusters());
+        System.out.println("largest    = " + labeler.largestCluster());
+        for (final Map.Entry<Long, Long> entry : labeler.clusterSizes()
+                .entrySet()) {
+            System.out.println(entry.getKey() + "\t" + entry.getValue());
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Dependencies: PercolationMetrics.java
+ *
+ * PercolationMetrics that emits Java Flight Recorder events, to look at the
+ * union-find work next to GC and CPU samples in JDK Mission Control:
+ * percolation.Open for every opened site, with its duration, and
+ * percolation.Union for every union, with the rank of the new root. Finds are
+ * far too frequent to be events of their own, so every find only adds its
+ * path length to the next Open event of the same thread.
+ *
+ * Events are only recorded while a recording is running, e.g. with
+ * -XX:StartFlightRecording, and cost little more than a check otherwise.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+public class JfrMetrics implements PercolationMetrics {
+
+    // finds and links walked since the last Open event of each thread
+    private final ThreadLocal<long[]> pending = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+
+    @Name("percolation.Open")
+    @Label("Open Site")
+    @Category("Percolation")
+    static class OpenEvent extends Event {
+        @Label("Duration")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanos;
+
+        @Label("Finds")
+        @Description("Finds done since the previous open")
+        long finds;
+
+        @Label("Find Steps")
+        @Description("Parent links walked by those finds")
+        long findSteps;
+    }
+
+    @Name("percolation.Union")
+    @Label("Union")
+    @Category("Percolation")
+    static class UnionEvent extends Event {
+        @Label("Rank")
+        @Description("Rank of the root of the merged component")
+        int rank;
+    }
+
+    public void find(final int pathLength) {
+        final long[] counts = pending.get();
+        counts[0]++;
+        counts[1] += pathLength;
+    }
+
+    public void union(final int rank) {
+        final UnionEvent event = new UnionEvent();
+        if (event.isEnabled()) {
+            event.rank = rank;
+            event.commit();
+        }
+    }
+
+    public void open(final long nanos) {
+        final long[] counts = pending.get();
+        final OpenEvent event = new OpenEvent();
+
+        if (event.isEnabled()) {
+            event.nanos = nanos;
+            event.finds = counts[0];
+            event.findSteps = counts[1];
+            event.commit();
+        }
+        counts[0] = 0;
+        counts[1] = 0;
+    }
+
+}
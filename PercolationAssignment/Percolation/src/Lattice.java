@@ -0,0 +1,341 @@
+/**
+ * Dependencies: none
+ *
+ * Geometry of a site percolation lattice: how many sites it has, which sites
+ * are neighbors, and which ones touch the top and the bottom boundaries. Sites
+ * are numbered row by row (and layer by layer in 3D) from 0, so the numbering
+ * of the square lattice is the flat index used by Percolation.
+ *
+ * Available lattices, all with side N:
+ * - square: N-by-N, 4 neighbors (the course's model)
+ * - moore: N-by-N, 8 neighbors (diagonals included)
+ * - triangular: N-by-N rhombus, 6 neighbors
+ * - honeycomb: N-by-N brick wall, 3 neighbors (hexagonal lattice)
+ * - cubic: N-by-N-by-N, 6 neighbors, top and bottom are the first and last
+ * layers
+ *
+ * Neighbors are written into a caller supplied array, so enumerating them does
+ * not allocate.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+public abstract class Lattice {
+
+    private final int side; // N
+    private final int sites; // total number of sites
+    private final int boundary; // sites in the top (and bottom) boundary
+
+    private Lattice(final int N, final int dimensions) {
+        if (N <= 0)
+            throw new IllegalArgumentException(
+                    "Argument must be greater than 0");
+
+        long total = 1;
+        for (int i = 0; i < dimensions; i++) {
+            total *= N;
+        }
+        if (total > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Lattice is too big");
+
+        side = N;
+        sites = (int) total;
+        boundary = (int) (total / N);
+    }
+
+    /**
+     * N-by-N square lattice where every site has its 4 orthogonal neighbors.
+     */
+    public static Lattice square(final int N) {
+        return new Square(N);
+    }
+
+    /**
+     * N-by-N square lattice where every site has 8 neighbors (Moore
+     * neighborhood).
+     */
+    public static Lattice moore(final int N) {
+        return new Moore(N);
+    }
+
+    /**
+     * N-by-N triangular lattice drawn as a rhombus: every site has 6 neighbors,
+     * its 4 orthogonal ones plus the up-right and down-left diagonals.
+     */
+    public static Lattice triangular(final int N) {
+        return new Triangular(N);
+    }
+
+    /**
+     * N-by-N hexagonal (honeycomb) lattice drawn as a brick wall: every site
+     * has its left and right neighbors, plus the one above or below depending
+     * on the parity of row + column.
+     */
+    public static Lattice honeycomb(final int N) {
+        return new Honeycomb(N);
+    }
+
+    /**
+     * N-by-N-by-N simple cubic lattice with 6 neighbors per site.
+     */
+    public static Lattice cubic(final int N) {
+        return new Cubic(N);
+    }
+
+    /**
+     * Lattice of the given kind ("square", "moore", "triangular", "honeycomb"
+     * or "cubic") with side N.
+     */
+    public static Lattice of(final String kind, final int N) {
+        if ("square".equals(kind)) {
+            return square(N);
+        } else if ("moore".equals(kind)) {
+            return moore(N);
+        } else if ("triangular".equals(kind)) {
+            return triangular(N);
+        } else if ("honeycomb".equals(kind)) {
+            return honeycomb(N);
+        } else if ("cubic".equals(kind)) {
+            return cubic(N);
+        }
+        throw new IllegalArgumentException("Unknown lattice: " + kind);
+    }
+
+    /**
+     * Checks whether this is the N-by-N square lattice of Percolation.
+     */
+    public boolean isSquare() {
+        return false;
+    }
+
+    /**
+     * Number of sites of each side.
+     */
+    public final int side() {
+        return side;
+    }
+
+    /**
+     * Total number of sites.
+     */
+    public final int sites() {
+        return sites;
+    }
+
+    /**
+     * Checks whether the site is in the first row (or layer).
+     */
+    public final boolean isTop(final int site) {
+        return site < boundary;
+    }
+
+    /**
+     * Checks whether the site is in the last row (or layer).
+     */
+    public final boolean isBottom(final int site) {
+        return site >= sites - boundary;
+    }
+
+    /**
+     * Maximum number of neighbors of a site, i.e. the size needed for the
+     * array passed to neighbors().
+     */
+    public abstract int degree();
+
+    /**
+     * Writes the neighbors of the site into out, starting at 0.
+     *
+     * @return number of neighbors written
+     */
+    public abstract int neighbors(int site, int[] out);
+
+    private static final class Square extends Lattice {
+        Square(final int N) {
+            super(N, 2);
+        }
+
+        @Override
+        public boolean isSquare() {
+            return true;
+        }
+
+        @Override
+        public int degree() {
+            return 4;
+        }
+
+        @Override
+        public int neighbors(final int site, final int[] out) {
+            final int n = side();
+            final int column = site % n;
+            int count = 0;
+
+            if (site >= n) {
+                out[count++] = site - n;
+            }
+            if (column > 0) {
+                out[count++] = site - 1;
+            }
+            if (site < sites() - n) {
+                out[count++] = site + n;
+            }
+            if (column < n - 1) {
+                out[count++] = site + 1;
+            }
+
+            return count;
+        }
+    }
+
+    private static final class Moore extends Lattice {
+        Moore(final int N) {
+            super(N, 2);
+        }
+
+        @Override
+        public int degree() {
+            return 8;
+        }
+
+        @Override
+        public int neighbors(final int site, final int[] out) {
+            final int n = side();
+            final int row = site / n;
+            final int column = site % n;
+            int count = 0;
+
+            for (int r = Math.max(0, row - 1); r <= Math.min(n - 1, row + 1); r++) {
+                for (int c = Math.max(0, column - 1); c <= Math.min(n - 1,
+                        column + 1); c++) {
+                    if (r != row || c != column) {
+                        out[count++] = r * n + c;
+                    }
+                }
+            }
+
+            return count;
+        }
+    }
+
+    private static final class Triangular extends Lattice {
+        Triangular(final int N) {
+            super(N, 2);
+        }
+
+        @Override
+        public int degree() {
+            return 6;
+        }
+
+        @Override
+        public int neighbors(final int site, final int[] out) {
+            final int n = side();
+            final int column = site % n;
+            final boolean up = site >= n;
+            final boolean down = site < sites() - n;
+            int count = 0;
+
+            if (up) {
+                out[count++] = site - n;
+                if (column < n - 1) {
+                    out[count++] = site - n + 1; // up-right diagonal
+                }
+            }
+            if (column > 0) {
+                out[count++] = site - 1;
+            }
+            if (column < n - 1) {
+                out[count++] = site + 1;
+            }
+            if (down) {
+                out[count++] = site + n;
+                if (column > 0) {
+                    out[count++] = site + n - 1; // down-left diagonal
+                }
+            }
+
+            return count;
+        }
+    }
+
+    private static final class Honeycomb extends Lattice {
+        Honeycomb(final int N) {
+            super(N, 2);
+        }
+
+        @Override
+        public int degree() {
+            return 3;
+        }
+
+        @Override
+        public int neighbors(final int site, final int[] out) {
+            final int n = side();
+            final int row = site / n;
+            final int column = site - row * n;
+            int count = 0;
+
+            if (column > 0) {
+                out[count++] = site - 1;
+            }
+            if (column < n - 1) {
+                out[count++] = site + 1;
+            }
+            // bricks alternate: the vertical bond goes down on even sites
+            if (((row + column) & 1) == 0) {
+                if (row < n - 1) {
+                    out[count++] = site + n;
+                }
+            } else if (row > 0) {
+                out[count++] = site - n;
+            }
+
+            return count;
+        }
+    }
+
+    private static final class Cubic extends Lattice {
+        Cubic(final int N) {
+            super(N, 3);
+        }
+
+        @Override
+        public int degree() {
+            return 6;
+        }
+
+        @Override
+        public int neighbors(final int site, final int[] out) {
+            final int n = side();
+            final int layer = n * n;
+            final int x = site % n;
+            final int y = (site / n) % n;
+            int count = 0;
+
+            if (site >= layer) {
+                out[count++] = site - layer;
+            }
+            if (y > 0) {
+                out[count++] = site - n;
+            }
+            if (x > 0) {
+                out[count++] = site - 1;
+            }
+            if (x < n - 1) {
+                out[count++] = site + 1;
+            }
+            if (y < n - 1) {
+                out[count++] = site + n;
+            }
+            if (site < sites() - layer) {
+                out[count++] = site + layer;
+            }
+
+            return count;
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+/**
+ * Dependencies: none
+ *
+ * Fixed-size array of bytes and longs kept in a memory-mapped file instead of
+ * the heap. A single MappedByteBuffer cannot go past 2 GB, so the file is
+ * mapped in chunks of 2^chunkBits bytes (1 GB by default) and every access is
+ * routed to its chunk with a shift and a mask. Chunks are a multiple of 8
+ * bytes, so an aligned long never straddles two of them.
+ *
+ * The file is created sparse and every byte reads as 0 until it is written, so
+ * no initialization pass is needed however big the array is. Only the pages
+ * actually touched are brought in, and the OS pages them out under memory
+ * pressure, so heap usage does not grow with the size of the array.
+ *
+ * Java cannot unmap a MappedByteBuffer: the mapping goes away when the buffer
+ * is garbage collected. So close() drops the buffers, and a scratch file that
+ * must go away is opened with DELETE_ON_CLOSE rather than deleted by hand
+ * while it may still be mapped, which fails on Windows. The OS then removes
+ * it once the channel is closed and the last mapping is gone.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MappedArray implements Closeable {
+
+    private static final int DEFAULT_CHUNK_BITS = 30; // 1 GB per mapping
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks; // all null once closed
+    private final int chunkBits;
+    private final long chunkMask;
+    private final long length;
+
+    /**
+     * Maps the given file as an array of the given number of bytes, in 1 GB
+     * chunks. The file is created (or grown) if needed.
+     */
+    public MappedArray(final Path file, final long bytes) throws IOException {
+        this(file, bytes, DEFAULT_CHUNK_BITS, false);
+    }
+
+    /**
+     * Maps the given file as an array of the given number of bytes, in 1 GB
+     * chunks. If scratch is true, the file is deleted by the OS once the array
+     * is closed and no longer mapped.
+     */
+    public MappedArray(final Path file, final long bytes,
+            final boolean scratch) throws IOException {
+        this(file, bytes, DEFAULT_CHUNK_BITS, scratch);
+    }
+
+    /**
+     * Maps the given file as an array of the given number of bytes, in chunks
+     * of 2^chunkBits bytes (from 3 to 30).
+     */
+    public MappedArray(final Path file, final long bytes, final int chunkBits)
+            throws IOException {
+        this(file, bytes, chunkBits, false);
+    }
+
+    /**
+     * Maps the given file as an array of the given number of bytes, in chunks
+     * of 2^chunkBits bytes (from 3 to 30), deleting it once closed and
+     * unmapped if scratch is true.
+     */
+    public MappedArray(final Path file, final long bytes, final int chunkBits,
+            final boolean scratch) throws IOException {
+        if (bytes <= 0)
+            throw new IllegalArgumentException(
+                    "Argument must be greater than 0");
+        if (chunkBits < 3 || chunkBits > DEFAULT_CHUNK_BITS)
+            throw new IllegalArgumentException("Chunk size out of range");
+
+        final long chunkSize = 1L << chunkBits;
+        final long count = ((bytes - 1) >>> chunkBits) + 1;
+        if (count > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Array is too big");
+
+        this.chunkBits = chunkBits;
+        chunkMask = chunkSize - 1;
+        length = bytes;
+        final OpenOption[] options;
+        if (scratch) {
+            options = new OpenOption[] { StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE };
+        } else {
+            options = new OpenOption[] { StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE };
+        }
+        channel = FileChannel.open(file, options);
+        chunks = new MappedByteBuffer[(int) count];
+
+        try {
+            for (int i = 0; i < chunks.length; i++) {
+                final long position = (long) i << chunkBits;
+                final long size = Math.min(chunkSize, bytes - position);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        position, size);
+                chunks[i].order(ByteOrder.nativeOrder());
+            }
+        } catch (final IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of bytes of the array.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Byte at the given offset.
+     */
+    public byte getByte(final long offset) {
+        return chunks[(int) (offset >>> chunkBits)].get(
+                (int) (offset & chunkMask));
+    }
+
+    /**
+     * Writes the byte at the given offset.
+     */
+    public void putByte(final long offset, final byte value) {
+        chunks[(int) (offset >>> chunkBits)].put((int) (offset & chunkMask),
+                value);
+    }
+
+    /**
+     * Long at the given offset, which must be a multiple of 8.
+     */
+    public long getLong(final long offset) {
+        return chunks[(int) (offset >>> chunkBits)].getLong(
+                (int) (offset & chunkMask));
+    }
+
+    /**
+     * Writes the long at the given offset, which must be a multiple of 8.
+     */
+    public void putLong(final long offset, final long value) {
+        chunks[(int) (offset >>> chunkBits)].putLong(
+                (int) (offset & chunkMask), value);
+    }
+
+    /**
+     * Writes the dirty pages back to the file.
+     */
+    public void force() {
+        for (final MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    /**
+     * Closes the file and drops the mappings, which are unmapped when garbage
+     * collected. The array must not be used any more.
+     */
+    public void close() throws IOException {
+        Arrays.fill(chunks, null);
+        channel.close();
+    }
+
+}
@@ -0,0 +1,305 @@
+/**
+ * Execution: java MappedPercolation N directory [seed]
+ *
+ * Dependencies: MappedArray.java PercolationUF.java
+ *
+ * Out-of-core version of Percolation for grids too big for the heap (e.g.
+ * 100000-by-100000, 10^10 sites). The union-find arrays and the open state
+ * live in memory-mapped files inside the given directory, so the heap only
+ * holds a few objects whatever N is, and the OS pages the grid in and out.
+ *
+ * Every site takes 9 bytes of file: a long with its parent plus 1 (0 meaning
+ * the site is still closed, so a fresh sparse file needs no initialization)
+ * and a byte with its TOP/BOTTOM status bits and its rank. Site indices are
+ * longs (row * N + column, both from 0). Union by rank keeps the trees
+ * shallow, so a find touches few pages even when they are far apart.
+ *
+ * The files are scratch space: they are replaced when the grid is created and
+ * opened with DELETE_ON_CLOSE, so the OS deletes them once close() has closed
+ * them and their mappings are gone (see MappedArray). They are not deleted by
+ * hand while they may still be mapped, which fails on Windows.
+ *
+ * Running it performs a single trial on a N-by-N grid and prints the fraction
+ * of sites opened when the system percolates.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class MappedPercolation implements Closeable {
+
+    private static final int STATUS_MASK = PercolationUF.BOTH;
+    private static final int RANK_SHIFT = 2; // rank is stored above status
+
+    private final int gridSize; // number of sites of each grid's side
+    private final long sites;
+    private final Path parentFile;
+    private final Path stateFile;
+    private final MappedArray parent; // parent + 1 of every site, 0 = closed
+    private final MappedArray state; // rank << 2 | status of every site
+    private boolean percolates; // once it percolates it always does
+
+    /**
+     * Create N-by-N grid, with all sites blocked, backed by files in the given
+     * directory.
+     */
+    public MappedPercolation(final int N, final Path directory)
+            throws IOException {
+        if (N <= 0)
+            throw new IllegalArgumentException(
+                    "Argument must be greater than 0");
+
+        gridSize = N;
+        sites = (long) N * N;
+        parentFile = directory.resolve("parent.bin");
+        stateFile = directory.resolve("state.bin");
+
+        // start from empty sparse files, whatever a previous run left
+        Files.deleteIfExists(parentFile);
+        Files.deleteIfExists(stateFile);
+        parent = new MappedArray(parentFile, sites * 8, true);
+        state = new MappedArray(stateFile, sites, true);
+        percolates = false;
+    }
+
+    /**
+     * Number of sites of the grid (N*N).
+     */
+    public long sites() {
+        return sites;
+    }
+
+    private void checkBounds(final int row, final int column) {
+        if (row <= 0 || row > gridSize)
+            throw new IndexOutOfBoundsException("row index i out of bounds");
+        if (column <= 0 || column > gridSize)
+            throw new IndexOutOfBoundsException("column index j out of bounds");
+    }
+
+    private void checkSite(final long p) {
+        if (p < 0 || p >= sites)
+            throw new IndexOutOfBoundsException("site index out of bounds");
+    }
+
+    private long xyTo1D(final int row, final int column) {
+        return (long) (row - 1) * gridSize + (column - 1);
+    }
+
+    /**
+     * Open site (row i, column j) if it is not already, and connect it with its
+     * opened neighbors.
+     */
+    public void open(final int row, final int column) {
+        checkBounds(row, column);
+        openUnchecked(xyTo1D(row, column));
+    }
+
+    /**
+     * Open the site at the given flat index if it is not already, and connect
+     * it with its opened neighbors.
+     */
+    public void openSite(final long p) {
+        checkSite(p);
+        openUnchecked(p);
+    }
+
+    private void openUnchecked(final long p) {
+        if (isOpenUnchecked(p)) {
+            return;
+        }
+
+        int status = 0;
+
+        // sites in the first and last rows touch the top and bottom
+        if (p < gridSize) {
+            status |= PercolationUF.TOP;
+        }
+        if (p >= sites - gridSize) {
+            status |= PercolationUF.BOTTOM;
+        }
+        setParent(p, p);
+        state.putByte(p, (byte) status);
+
+        // connect the new open site to any open neighbor
+        final long column = p % gridSize;
+
+        if (p >= gridSize && isOpenUnchecked(p - gridSize)) {
+            status = union(p, p - gridSize);
+        }
+        if (column > 0 && isOpenUnchecked(p - 1)) {
+            status = union(p, p - 1);
+        }
+        if (p < sites - gridSize && isOpenUnchecked(p + gridSize)) {
+            status = union(p, p + gridSize);
+        }
+        if (column < gridSize - 1 && isOpenUnchecked(p + 1)) {
+            status = union(p, p + 1);
+        }
+
+        if (status == PercolationUF.BOTH) {
+            percolates = true;
+        }
+    }
+
+    /**
+     * Checks whether the given site is open.
+     */
+    public boolean isOpen(final int row, final int column) {
+        checkBounds(row, column);
+        return isOpenUnchecked(xyTo1D(row, column));
+    }
+
+    /**
+     * Checks whether the site at the given flat index is open.
+     */
+    public boolean isOpenSite(final long p) {
+        checkSite(p);
+        return isOpenUnchecked(p);
+    }
+
+    /**
+     * Checks whether the given site is opened and connected to the top row.
+     */
+    public boolean isFull(final int row, final int column) {
+        checkBounds(row, column);
+        final long q = xyTo1D(row, column);
+
+        return isOpenUnchecked(q)
+                && (state.getByte(find(q)) & PercolationUF.TOP) != 0;
+    }
+
+    /**
+     * The system percolates if some component touches both the first and the
+     * last row.
+     */
+    public boolean percolates() {
+        return percolates;
+    }
+
+    /**
+     * Writes the grid back to its files, e.g. before a long pause.
+     */
+    public void force() {
+        parent.force();
+        state.force();
+    }
+
+    /**
+     * Closes the backing files, which the OS deletes once unmapped. The grid
+     * must not be used any more.
+     */
+    public void close() throws IOException {
+        try {
+            parent.close();
+        } finally {
+            state.close();
+        }
+    }
+
+    private boolean isOpenUnchecked(final long p) {
+        return parent.getLong(p << 3) != 0;
+    }
+
+    private long getParent(final long p) {
+        return parent.getLong(p << 3) - 1;
+    }
+
+    private void setParent(final long p, final long q) {
+        parent.putLong(p << 3, q + 1);
+    }
+
+    /**
+     * Root of the component of open site p, with path halving.
+     */
+    private long find(final long p) {
+        long current = p;
+        long next = getParent(current);
+
+        while (next != current) {
+            final long grandparent = getParent(next);
+            setParent(current, grandparent);
+            current = grandparent;
+            next = getParent(current);
+        }
+
+        return current;
+    }
+
+    /**
+     * Merges the components of open sites p and q by rank.
+     *
+     * @return the status bits of the resulting component
+     */
+    private int union(final long p, final long q) {
+        final long rootP = find(p);
+        final long rootQ = find(q);
+        final int stateP = state.getByte(rootP);
+        final int stateQ = state.getByte(rootQ);
+
+        if (rootP == rootQ) {
+            return stateP & STATUS_MASK;
+        }
+
+        final int merged = (stateP | stateQ) & STATUS_MASK;
+        final int rankP = (stateP & 0xFF) >>> RANK_SHIFT;
+        final int rankQ = (stateQ & 0xFF) >>> RANK_SHIFT;
+
+        // make the shorter tree point to the taller one
+        if (rankP < rankQ) {
+            setParent(rootP, rootQ);
+            state.putByte(rootQ, (byte) (rankQ << RANK_SHIFT | merged));
+        } else if (rankP > rankQ) {
+            setParent(rootQ, rootP);
+            state.putByte(rootP, (byte) (rankP << RANK_SHIFT | merged));
+        } else {
+            setParent(rootQ, rootP);
+            state.putByte(rootP, (byte) ((rankP + 1) << RANK_SHIFT | merged));
+        }
+
+        return merged;
+    }
+
+    /**
+     * Takes the grid side N, a directory for the backing files and an
+     * optional seed, and prints the percolation threshold of a single trial.
+     */
+    public static void main(String[] args) throws IOException {
+        final int N = Integer.parseInt(args[0]);
+        final Path directory = Paths.get(args[1]);
+        final SplittableRandom random;
+        if (args.length > 2) {
+            random = new SplittableRandom(Long.parseLong(args[2]));
+        } else {
+            random = new SplittableRandom();
+        }
+
+        final MappedPercolation perc = new MappedPercolation(N, directory);
+        try {
+            long opened = 0;
+
+            while (!perc.percolates()) {
+                long p;
+                do {
+                    p = random.nextLong(perc.sites());
+                } while (perc.isOpenSite(p)); // repeat until site is closed
+
+                perc.openSite(p);
+                opened++;
+            }
+
+            System.out.println("threshold = " + (double) opened / perc.sites());
+        } finally {
+            perc.close();
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/**
+ * Dependencies: PercolationMetrics.java MetricsRecorder.java JfrMetrics.java
+ *
+ * Switch and sink of the union-find metrics. ENABLED is read once from the
+ * percolation.metrics system property:
+ * - "true": counts and histograms are kept by a MetricsRecorder
+ * - "jfr": every open and union is emitted as a JFR event (see JfrMetrics)
+ * - unset or anything else: disabled (the default), so a mistyped value
+ * never slows the runs down
+ *
+ * ENABLED is a static final field, so once the class is initialized the JIT
+ * treats it as a constant, and when it is false the instrumented code is
+ * removed from the compiled hot paths altogether.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+public final class Metrics {
+
+    private static final String MODE = System.getProperty(
+            "percolation.metrics", "false");
+
+    public static final boolean ENABLED = "true".equals(MODE)
+            || "jfr".equals(MODE);
+
+    private static volatile PercolationMetrics sink = newSink();
+
+    private Metrics() {
+    }
+
+    private static PercolationMetrics newSink() {
+        if (!ENABLED) {
+            return null;
+        }
+        if ("jfr".equals(MODE)) {
+            return new JfrMetrics();
+        }
+        return new MetricsRecorder();
+    }
+
+    /**
+     * Current sink, null when metrics are disabled.
+     */
+    public static PercolationMetrics sink() {
+        return sink;
+    }
+
+    /**
+     * Sends the metrics to the given sink from now on. Has no effect when
+     * metrics are disabled.
+     */
+    public static void use(final PercolationMetrics metrics) {
+        if (metrics == null)
+            throw new NullPointerException("Metrics must not be null");
+        if (ENABLED) {
+            sink = metrics;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Dependencies: PercolationMetrics.java
+ *
+ * PercolationMetrics that counts unions, finds and opens, and keeps
+ * histograms of find path lengths and root ranks (tree heights). Counters are
+ * LongAdders, so threads recording at the same time do not fight over a
+ * single cache line.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MetricsRecorder implements PercolationMetrics {
+
+    private static final int BUCKETS = 64; // last bucket holds the longer ones
+
+    private final LongAdder finds = new LongAdder();
+    private final LongAdder findSteps = new LongAdder();
+    private final LongAdder unions = new LongAdder();
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder openNanos = new LongAdder();
+    private final LongAdder[] pathLengths = newHistogram();
+    private final LongAdder[] ranks = newHistogram();
+
+    private static LongAdder[] newHistogram() {
+        final LongAdder[] histogram = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = new LongAdder();
+        }
+        return histogram;
+    }
+
+    public void find(final int pathLength) {
+        finds.increment();
+        findSteps.add(pathLength);
+        pathLengths[Math.min(pathLength, BUCKETS - 1)].increment();
+    }
+
+    public void union(final int rank) {
+        unions.increment();
+        ranks[Math.min(rank, BUCKETS - 1)].increment();
+    }
+
+    public void open(final long nanos) {
+        opens.increment();
+        openNanos.add(nanos);
+    }
+
+    /**
+     * Number of finds.
+     */
+    public long finds() {
+        return finds.sum();
+    }
+
+    /**
+     * Mean number of parent links walked by a find, NaN if there was none.
+     */
+    public double meanPathLength() {
+        return (double) findSteps.sum() / finds.sum();
+    }
+
+    /**
+     * Number of unions that merged two components.
+     */
+    public long unions() {
+        return unions.sum();
+    }
+
+    /**
+     * Number of sites opened.
+     */
+    public long opens() {
+        return opens.sum();
+    }
+
+    /**
+     * Mean time to open a site in nanoseconds, NaN if none was opened.
+     */
+    public double meanOpenNanos() {
+        return (double) openNanos.sum() / opens.sum();
+    }
+
+    /**
+     * Number of finds by path length: entry i counts the paths of length i,
+     * the last one those of that length or more.
+     */
+    public long[] pathLengthHistogram() {
+        return sums(pathLengths);
+    }
+
+    /**
+     * Number of unions by rank of the resulting root, like
+     * pathLengthHistogram().
+     */
+    public long[] rankHistogram() {
+        return sums(ranks);
+    }
+
+    private static long[] sums(final LongAdder[] histogram) {
+        int last = histogram.length - 1;
+        while (last > 0 && histogram[last].sum() == 0) {
+            last--;
+        }
+
+        final long[] counts = new long[last + 1];
+        for (int i = 0; i <= last; i++) {
+            counts[i] = histogram[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Clears all the counters.
+     */
+    public void reset() {
+        finds.reset();
+        findSteps.reset();
+        unions.reset();
+        opens.reset();
+        openNanos.reset();
+        for (int i = 0; i < BUCKETS; i++) {
+            pathLengths[i].reset();
+            ranks[i].reset();
+        }
+    }
+
+    /**
+     * Summary of all the counters, one per line.
+     */
+    @Override
+    public String toString() {
+        return "opens                   = " + opens() + "\n"
+                + "mean open (ns)          = " + meanOpenNanos() + "\n"
+                + "unions                  = " + unions() + "\n"
+                + "finds                   = " + finds() + "\n"
+                + "mean find steps         = " + meanPathLength() + "\n"
+                + "find steps              = "
+                + Arrays.toString(pathLengthHistogram()) + "\n"
+                + "union ranks             = "
+                + Arrays.toString(rankHistogram());
+    }
+
+}
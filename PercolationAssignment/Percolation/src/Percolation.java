@@ -1,35 +1,98 @@
 /**
  * Execution: java Percolation N
  * 
- * Dependencies: WeightedQuickUnionUF.java
+ * Dependencies: Metrics.java PercolationSystem.java PercolationUF.java
+ * SiteBitSet.java
  * 
- * This models a percolation system on a N-by-N grid based on the Weighted Quick
- * Union Find algorithm. It allows to open sites, to check whether a site is
+ * This models a percolation system on a N-by-N grid based on a weighted union
+ * find with path halving. It allows to open sites, to check whether a site is
  * open, to check whether a site is full, and to determine if the system
  * percolates or not.
  * 
+ * Every component remembers whether it touches the first and/or the last row,
+ * so a single union-find structure answers both isFull() and percolates()
+ * without the backwash of the virtual bottom token.
+ * 
+ * Sites can also be opened in batches of flat indices, with a listener told
+ * when the system first percolates and which of the new sites are full.
+ * 
+ * fullSites() exports the full sites of the whole grid as a bitset in a single
+ * pass over the open sites. Open sites next to each other in a row always
+ * belong to the same component, so only one find is done per horizontal run of
+ * open sites.
+ * 
+ * reset() blocks all the sites again in place, so trial loops can reuse a
+ * single instance. Only the bitset is cleared: the union-find entry of a site
+ * is rebuilt when the site is opened, as nothing can point to a closed site.
+ * 
+ * checkpoint() saves the current state in O(1) and restore() comes back to
+ * it, in time proportional to the changes made since, as many times as
+ * needed: the sites opened since are logged, and so are the union-find
+ * entries they changed (see PercolationUF). A common prefix of sites can thus
+ * be opened once and then branched into many continuations.
+ * 
+ * With Metrics enabled, the time taken to open every site is reported.
+ * 
  * 
  * Date: September 7, 2014
  * 
  * @author esloho
  */
 
-public class Percolation {
+import java.util.Arrays;
+
+public class Percolation implements PercolationSystem {
+
+    /**
+     * State of a Percolation to come back to with restore().
+     */
+    public static final class Checkpoint {
+        private final Percolation owner;
+        private final int serial;
+        private final int unionFindMark;
+        private final int openedMark;
+        private final boolean percolates;
+
+        private Checkpoint(final Percolation p) {
+            owner = p;
+            serial = p.newSerial();
+            unionFindMark = p.unionFind.checkpoint();
+            openedMark = p.openedLogSize;
+            percolates = p.percolates;
+        }
+    }
+
+    /**
+     * Receives the events of a batch of opened sites.
+     */
+    public interface Listener {
+        /**
+         * The system percolates for the first time after opening the site at
+         * the given position of the batch.
+         */
+        void percolated(int position, int site);
+
+        /**
+         * A site opened by the batch is full once the batch is done.
+         */
+        void full(int site);
+    }
 
     private final int gridSize; // number of sites of each grid's side
-    private final int extendedM; // sites in the extended 1D representation
-    private final int basicM; // sites in the basic 1D representation
-    private boolean[][] grid; // false = closed site, true = open site
-    private final WeightedQuickUnionUF extendedWeightedUF;
-    private final WeightedQuickUnionUF basicWeightedUF;
-    private final int upperToken; // extra token to connect all sites in row 1
-    private final int bottomToken; // extra token to connect all sites in row N
+    private final SiteBitSet grid; // one bit per site, set = open site
+    private final PercolationUF unionFind;
+    private boolean percolates; // once it percolates it always does
+
+    private int[] openedLog; // sites opened since the first checkpoint
+    private int openedLogSize;
+    private int serial; // serial of the last checkpoint taken
+    private int[] live; // serials of the valid checkpoints, increasing
+    private int liveSize;
 
     /**
-     * Create N-by-N grid, with all sites blocked. Creates a
-     * WeightedQuickUnionUF object with an array size of N*N plus two extra
-     * tokens: one to perform as "parent" for all sites in the first row and
-     * another "parent" for all sites in the last row.
+     * Create N-by-N grid, with all sites blocked. Creates a PercolationUF
+     * object with one entry per site; sites in the first and last rows get
+     * their TOP/BOTTOM status when they are opened.
      */
     public Percolation(final int N) {
         if (N <= 0)
@@ -37,35 +100,9 @@ public class Percolation {
                     "Argument must be greater than 0");
 
         gridSize = N;
-        basicM = N * N + 1;
-        extendedM = N * N + 2;
-        upperToken = 0;
-        bottomToken = extendedM - 1;
-        extendedWeightedUF = new WeightedQuickUnionUF(extendedM);
-        basicWeightedUF = new WeightedQuickUnionUF(basicM);
-        grid = new boolean[N][N];
-
-        // initialize all sites as blocked
-        for (int row = 0; row < N; row++) {
-            for (int column = 0; column < N; column++) {
-                grid[row][column] = false;
-            }
-        }
-
-        // connect all sites at the first row to the upper token
-        for (int column = 0; column < N; column++) {
-            basicWeightedUF.union(0, column + 1);
-        }
-
-        // connect all sites at the first row to the upper token
-        for (int column = 0; column < N; column++) {
-            extendedWeightedUF.union(0, column + 1);
-        }
-
-        // connect all sites at the last row to the bottom token
-        for (int i = 0; i < N; i++) {
-            extendedWeightedUF.union(bottomToken - 1 - i, bottomToken);
-        }
+        unionFind = new PercolationUF(N * N);
+        grid = new SiteBitSet(N);
+        percolates = false;
     }
 
     /**
@@ -85,10 +122,10 @@ public class Percolation {
 
     /**
      * Converts (row,column) index into 1D array index. The new index is by
-     * counting i-1 rows of size N + an incomplete row of j columns.
+     * counting i-1 rows of size N + an incomplete row of j-1 columns.
      */
     private int xyTo1D(final int row, final int column) {
-        final int index = ((row - 1) * gridSize) + column;
+        final int index = ((row - 1) * gridSize) + (column - 1);
         return index;
     }
 
@@ -98,38 +135,128 @@ public class Percolation {
      */
     public void open(final int row, final int column) {
         checkBounds(row, column);
-        if (!grid[row - 1][column - 1]) {
-            grid[row - 1][column - 1] = true; // open the site
-
-            final int p = xyTo1D(row, column);
-            int q;
-
-            // connect the new open site to any open neighbor
-            // check up neighbor, except if we are at the first row
-            if (row > 1 && grid[row - 2][column - 1]) {
-                q = xyTo1D(row - 1, column);
-                extendedWeightedUF.union(p, q);
-                basicWeightedUF.union(p, q);
-            }
-            // check left neighbor, except if we are at first column
-            if (column > 1 && grid[row - 1][column - 2]) {
-                q = xyTo1D(row, column - 1);
-                extendedWeightedUF.union(p, q);
-                basicWeightedUF.union(p, q);
-            }
-            // check down neighbor, except if we are at last row
-            if (row < gridSize && grid[row][column - 1]) {
-                q = xyTo1D(row + 1, column);
-                extendedWeightedUF.union(p, q);
-                basicWeightedUF.union(p, q);
+        openUnchecked(xyTo1D(row, column));
+    }
+
+    /**
+     * Open the site at the given flat index (row * N + column, both from 0) if
+     * it is not already, and connect it with its opened neighbors.
+     */
+    public void openSite(final int p) {
+        checkSite(p);
+        openUnchecked(p);
+    }
+
+    /**
+     * Opens the sites at the given flat indices, in order. All indices are
+     * checked before any site is opened. The listener (if not null) is told
+     * the position at which the system first percolates, if it happens during
+     * this batch, and then every site newly opened by the batch that is full.
+     * 
+     * @return number of sites that were closed before this call
+     */
+    public int open(final int[] sites, final Listener listener) {
+        for (final int p : sites) {
+            checkSite(p);
+        }
+
+        // positions of the sites opened now, only needed to report fullness
+        final int[] opened;
+        if (listener != null) {
+            opened = new int[sites.length];
+        } else {
+            opened = null;
+        }
+
+        int count = 0;
+        for (int k = 0; k < sites.length; k++) {
+            final boolean percolatedBefore = percolates;
+
+            if (openUnchecked(sites[k])) {
+                if (opened != null) {
+                    opened[count] = sites[k];
+                }
+                count++;
+
+                if (!percolatedBefore && percolates && listener != null) {
+                    listener.percolated(k, sites[k]);
+                }
             }
-            // check right neighbor, except if we are at last column
-            if (column < gridSize && grid[row - 1][column]) {
-                q = xyTo1D(row, column + 1);
-                extendedWeightedUF.union(p, q);
-                basicWeightedUF.union(p, q);
+        }
+
+        if (listener != null) {
+            for (int k = 0; k < count; k++) {
+                if ((unionFind.status(opened[k]) & PercolationUF.TOP) != 0) {
+                    listener.full(opened[k]);
+                }
             }
         }
+
+        return count;
+    }
+
+    private void checkSite(final int p) {
+        if (p < 0 || p >= grid.size())
+            throw new IndexOutOfBoundsException("site index out of bounds");
+    }
+
+    /**
+     * Opens site p, already known to be inside the grid.
+     * 
+     * @return true if the site was closed
+     */
+    private boolean openUnchecked(final int p) {
+        if (!grid.set(p)) {
+            return false;
+        }
+
+        final long start;
+        if (Metrics.ENABLED) {
+            start = System.nanoTime();
+        } else {
+            start = 0;
+        }
+
+        byte status = 0;
+
+        // sites in the first and last rows touch the top and bottom
+        if (p < gridSize) {
+            status |= PercolationUF.TOP;
+        }
+        if (p >= grid.size() - gridSize) {
+            status |= PercolationUF.BOTTOM;
+        }
+        if (openedLog != null) {
+            logOpened(p);
+        }
+
+        // the entry of a closed site may be left over from before a reset
+        unionFind.makeSet(p, status);
+
+        // connect the new open site to any open neighbor
+        final int neighbors = grid.openNeighbors(p);
+
+        if ((neighbors & SiteBitSet.UP) != 0) {
+            status = unionFind.union(p, p - gridSize);
+        }
+        if ((neighbors & SiteBitSet.LEFT) != 0) {
+            status = unionFind.union(p, p - 1);
+        }
+        if ((neighbors & SiteBitSet.DOWN) != 0) {
+            status = unionFind.union(p, p + gridSize);
+        }
+        if ((neighbors & SiteBitSet.RIGHT) != 0) {
+            status = unionFind.union(p, p + 1);
+        }
+
+        if (status == PercolationUF.BOTH) {
+            percolates = true;
+        }
+
+        if (Metrics.ENABLED) {
+            Metrics.sink().open(System.nanoTime() - start);
+        }
+        return true;
     }
 
     /**
@@ -138,7 +265,23 @@ public class Percolation {
     public boolean isOpen(final int row, final int column) {
         checkBounds(row, column);
 
-        return grid[row - 1][column - 1]; // open sites are true in the grid
+        return grid.get(xyTo1D(row, column));
+    }
+
+    /**
+     * Number of sites of the grid (N*N).
+     */
+    public int sites() {
+        return grid.size();
+    }
+
+    /**
+     * Checks whether the site at the given flat index (row * N + column, both
+     * from 0) is open.
+     */
+    public boolean isOpenSite(final int p) {
+        checkSite(p);
+        return grid.get(p);
     }
 
     /**
@@ -147,27 +290,133 @@ public class Percolation {
     public boolean isFull(final int row, final int column) {
         checkBounds(row, column);
         boolean full = false;
+        final int q = xyTo1D(row, column);
 
-        if (grid[row - 1][column - 1]) {
-            final int q = xyTo1D(row, column);
-            // is full if is connected to the top token
-            // full = extendedWeightedUF.connected(upperToken, q);
-            full = basicWeightedUF.connected(0, q);
+        if (grid.get(q)) {
+            // is full if its component touches the first row
+            full = (unionFind.status(q) & PercolationUF.TOP) != 0;
         }
 
         return full;
     }
 
     /**
-     * The system percolates if the upper token and the bottom token are
-     * connected.
+     * Returns a bitset with the full sites of the grid, indexed like openSite.
+     */
+    public SiteBitSet fullSites() {
+        final SiteBitSet full = new SiteBitSet(gridSize);
+        fullSites(full);
+        return full;
+    }
+
+    /**
+     * Overwrites the given bitset (created for the same N) with the full
+     * sites of the grid, so it can be reused between redraws.
+     */
+    public void fullSites(final SiteBitSet full) {
+        if (full.size() != grid.size())
+            throw new IllegalArgumentException("Bitset size does not match");
+
+        full.clear();
+
+        for (int rowStart = 0; rowStart < grid.size(); rowStart += gridSize) {
+            final int rowEnd = rowStart + gridSize;
+            int start = grid.nextSetBit(rowStart);
+
+            // every run of open sites in a row is a single component
+            while (start != -1 && start < rowEnd) {
+                final int end = Math.min(grid.nextClearBit(start), rowEnd);
+
+                if ((unionFind.status(start) & PercolationUF.TOP) != 0) {
+                    full.setRange(start, end);
+                }
+                start = grid.nextSetBit(end);
+            }
+        }
+    }
+
+    /**
+     * The system percolates if some component touches both the first and the
+     * last row.
      */
     public boolean percolates() {
-        if (gridSize == 1) {
-            return grid[0][0];
-        } else {
-            return extendedWeightedUF.connected(upperToken, bottomToken);
+        return percolates;
+    }
+
+    /**
+     * Blocks all the sites again, as a new Percolation(N) would, without
+     * allocating.
+     */
+    public void reset() {
+        release();
+        grid.clear();
+        percolates = false;
+    }
+
+    /**
+     * Saves the current state, to come back to it later with restore().
+     * Until release() is called, finds do not shorten paths.
+     */
+    public Checkpoint checkpoint() {
+        if (openedLog == null) {
+            openedLog = new int[16];
+        }
+        return new Checkpoint(this);
+    }
+
+    /**
+     * Serial of a new checkpoint, which is valid until a checkpoint taken
+     * before it is restored or until release().
+     */
+    private int newSerial() {
+        if (live == null) {
+            live = new int[16];
+        } else if (liveSize == live.length) {
+            live = Arrays.copyOf(live, 2 * liveSize);
+        }
+        serial++;
+        live[liveSize++] = serial;
+        return serial;
+    }
+
+    /**
+     * Comes back to the state saved by the given checkpoint, which can be
+     * restored again later. Checkpoints taken after it are no longer valid.
+     */
+    public void restore(final Checkpoint checkpoint) {
+        final int index = checkpoint.owner == this ? Arrays.binarySearch(
+                live, 0, liveSize, checkpoint.serial) : -1;
+        if (index < 0 || checkpoint.openedMark > openedLogSize)
+            throw new IllegalStateException("Checkpoint is no longer valid");
+
+        // the states saved after it are not reachable any more
+        liveSize = index + 1;
+
+        while (openedLogSize > checkpoint.openedMark) {
+            openedLogSize--;
+            grid.clear(openedLog[openedLogSize]);
+        }
+        unionFind.rollback(checkpoint.unionFindMark);
+        percolates = checkpoint.percolates;
+    }
+
+    /**
+     * Keeps the current state and drops all the checkpoints.
+     */
+    public void release() {
+        if (openedLog != null) {
+            unionFind.release();
+            openedLog = null;
+            openedLogSize = 0;
+            liveSize = 0;
+        }
+    }
+
+    private void logOpened(final int p) {
+        if (openedLogSize == openedLog.length) {
+            openedLog = Arrays.copyOf(openedLog, 2 * openedLogSize);
         }
+        openedLog[openedLogSize++] = p;
     }
 
 }
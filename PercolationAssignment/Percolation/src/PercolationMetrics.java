@@ -0,0 +1,34 @@
+/**
+ * Dependencies: none
+ *
+ * Receives the work done by the union-find of the percolation systems when
+ * metrics are enabled (see Metrics). Calls come from the hot paths, and from
+ * several threads at once when PercolationStats runs in parallel, so
+ * implementations must be thread-safe and cheap.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+public interface PercolationMetrics {
+
+    /**
+     * A find took the given number of steps to reach the root, one per
+     * parent link followed (with path halving, a step skips a link).
+     */
+    void find(int pathLength);
+
+    /**
+     * Two components were merged, and the rank of the resulting root (an
+     * upper bound of its tree height) is the given one.
+     */
+    void union(int rank);
+
+    /**
+     * A closed site was opened, which took the given number of nanoseconds.
+     */
+    void open(long nanos);
+
+}
@@ -1,68 +1,655 @@
 /**
- * Execution: java PercolationStats N T
+ * Execution: java PercolationStats N T [threads] [sampling] [lattice]
  * 
- * Dependencies: Percolation.java StdRandom.java StdStats.java
+ * Dependencies: Lattice.java Percolation.java LatticePercolation.java
+ * SitePermutation.java ThresholdFinder.java RunningStats.java
  * 
  * This program estimates the percolation threshold by running T executions for
  * a NxN grid, and prints out the mean, standard deviation and the 95%
  * confidence interval for the percolation threshold.
  * 
+ * Trials can be spread over a fork-join pool. Each trial draws its sites from
+ * its own SplittableRandom, seeded from the base seed and the trial number, so
+ * the results only depend on the seed and never on the number of threads.
+ * 
+ * The sites to open can be chosen by rejection (draw any site, retry while it
+ * is open) or from a random permutation of the sites, which never draws an
+ * open site again. The PRESHUFFLED mode skips Percolation altogether and finds
+ * the percolation point with a single union-find pass of ThresholdFinder.
+ * 
+ * Thresholds are not stored: each worker accumulates them in a RunningStats
+ * and the partial results are merged, always in the same order. Trials are run
+ * in blocks, and a listener can be told about the results after every block.
+ * 
+ * Instead of a fixed T, trials can also be run until the 95% confidence
+ * interval is narrow enough or a time budget runs out; trials() tells how many
+ * were needed.
+ * 
+ * Any Lattice can be used instead of the N-by-N grid (triangular, honeycomb,
+ * cubic...). Trials on the square lattice still run on Percolation, the other
+ * ones on LatticePercolation.
+ * 
+ * Systems, permutations and finders are reset between trials instead of
+ * being allocated again. Every run keeps the spare ones in a queue, so there
+ * are never more than one per worker thread, and trial loops do not allocate
+ * grids after the first trials.
+ * 
+ * Run with -Dpercolation.metrics=true to also print the union-find work done
+ * by all the trials (see Metrics).
+ * 
  * 
  * Date: September 7, 2014
  * 
  * @author esloho
  */
 
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class PercolationStats {
 
-    private double[] thresholds;
+    // trials run by a single fork-join task without splitting it further
+    private static final int TRIALS_PER_TASK = 8;
+    // trials run between two progress notifications
+    private static final int TRIALS_PER_BLOCK = 4096;
+    // trials run before trusting the variance to size the next block
+    private static final int MIN_ADAPTIVE_TRIALS = 32;
+
+    /**
+     * How each trial chooses the next site to open.
+     */
+    public enum Sampling {
+        /** Draw a random site and retry while it is already open. */
+        REJECTION,
+        /** Draw the next site of a lazily shuffled permutation of the sites. */
+        PERMUTATION,
+        /**
+         * Same order as PERMUTATION, but opened by ThresholdFinder in a single
+         * union-find pass, without Percolation's open-state or percolates().
+         */
+        PRESHUFFLED
+    }
 
     /**
-     * Initializes N-by-N grid with Percolation and creates the array for
-     * storing the percolation thresholds for each execution.
+     * Receives the results accumulated so far while trials are running.
+     */
+    public interface ProgressListener {
+        /**
+         * Called after every block of trials with a copy of the statistics
+         * of all the trials completed so far.
+         */
+        void progress(RunningStats partial);
+    }
+
+    /**
+     * Source of the time read by the adaptive constructor to keep to its
+     * budget; replaced by tests to make the budget logic deterministic.
+     */
+    interface Clock {
+        /** Current time in nanoseconds, from an arbitrary origin. */
+        long nanoTime();
+    }
+
+    private static final Clock SYSTEM_CLOCK = new Clock() {
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final RunningStats thresholds;
+
+    /**
+     * Runs T executions for a N-by-N grid with Percolation, accumulating the
+     * percolation thresholds of each one. Runs all the trials in the calling
+     * thread, from a new base seed every time, so that two instances run
+     * independent trials.
      * 
      * @param N
      * @param T
      */
     public PercolationStats(final int N, final int T) {
-        if (N <= 0 || T <= 0)
+        this(N, T, newSeed(), 1);
+    }
+
+    /**
+     * Runs T executions for a N-by-N grid over the given number of threads.
+     * Two instances built with the same N, T and seed hold the same
+     * thresholds, whatever the number of threads.
+     * 
+     * @param N
+     * @param T
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param threads
+     *            number of worker threads (1 runs everything sequentially)
+     */
+    public PercolationStats(final int N, final int T, final long seed,
+            final int threads) {
+        this(N, T, Sampling.REJECTION, seed, threads);
+    }
+
+    /**
+     * Runs T executions for a N-by-N grid over the given number of threads,
+     * choosing the sites to open with the given sampling.
+     * 
+     * @param N
+     * @param T
+     * @param sampling
+     *            how closed sites are chosen
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param threads
+     *            number of worker threads (1 runs everything sequentially)
+     */
+    public PercolationStats(final int N, final int T, final Sampling sampling,
+            final long seed, final int threads) {
+        this(N, T, sampling, seed, threads, null);
+    }
+
+    /**
+     * Runs T executions for a N-by-N grid over the given number of threads,
+     * reporting the statistics gathered so far after every block of trials.
+     * 
+     * @param N
+     * @param T
+     * @param sampling
+     *            how closed sites are chosen
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param threads
+     *            number of worker threads (1 runs everything sequentially)
+     * @param listener
+     *            told about partial results, or null
+     */
+    public PercolationStats(final int N, final int T, final Sampling sampling,
+            final long seed, final int threads,
+            final ProgressListener listener) {
+        this(Lattice.square(N), T, sampling, seed, threads, listener);
+    }
+
+    /**
+     * Runs T executions on the given lattice over the given number of
+     * threads, choosing the sites to open with the given sampling.
+     * 
+     * @param lattice
+     * @param T
+     * @param sampling
+     *            how closed sites are chosen
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param threads
+     *            number of worker threads (1 runs everything sequentially)
+     */
+    public PercolationStats(final Lattice lattice, final int T,
+            final Sampling sampling, final long seed, final int threads) {
+        this(lattice, T, sampling, seed, threads, null);
+    }
+
+    /**
+     * Runs T executions on the given lattice over the given number of
+     * threads, reporting the statistics gathered so far after every block of
+     * trials.
+     * 
+     * @param lattice
+     * @param T
+     * @param sampling
+     *            how closed sites are chosen
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param threads
+     *            number of worker threads (1 runs everything sequentially)
+     * @param listener
+     *            told about partial results, or null
+     */
+    public PercolationStats(final Lattice lattice, final int T,
+            final Sampling sampling, final long seed, final int threads,
+            final ProgressListener listener) {
+        if (threads <= 0)
+            throw new IllegalArgumentException(
+                    "Arguments must be greater than 0");
+
+        final ForkJoinPool pool = newPool(threads);
+        try {
+            thresholds = run(lattice, T, sampling, seed, pool, listener);
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Runs T executions on the given lattice on a pool owned by the caller,
+     * which can be shared by many instances (e.g. a sweep over several N).
+     * The results are the same as with any number of threads.
+     * 
+     * @param lattice
+     * @param T
+     * @param sampling
+     *            how closed sites are chosen
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param pool
+     *            pool running the trials, or null for the calling thread
+     * @param listener
+     *            told about partial results, or null
+     */
+    public PercolationStats(final Lattice lattice, final int T,
+            final Sampling sampling, final long seed, final ForkJoinPool pool,
+            final ProgressListener listener) {
+        thresholds = run(lattice, T, sampling, seed, pool, listener);
+    }
+
+    /**
+     * Runs trials [0, T) in blocks, telling the listener after every block.
+     */
+    private static RunningStats run(final Lattice lattice, final int T,
+            final Sampling sampling, final long seed, final ForkJoinPool pool,
+            final ProgressListener listener) {
+        if (T <= 0)
+            throw new IllegalArgumentException(
+                    "Arguments must be greater than 0");
+        if (lattice == null)
+            throw new NullPointerException("Lattice must not be null");
+        if (sampling == null)
+            throw new NullPointerException("Sampling must not be null");
+
+        final RunningStats stats = new RunningStats();
+        final Workspaces workspaces = new Workspaces(lattice, sampling);
+
+        for (int from = 0; from < T; from += TRIALS_PER_BLOCK) {
+            final int to = (int) Math.min((long) from + TRIALS_PER_BLOCK, T);
+            stats.merge(runBlock(pool, workspaces, seed, from, to));
+
+            if (listener != null) {
+                listener.progress(new RunningStats(stats));
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * Runs executions for a N-by-N grid until the half-width of the 95%
+     * confidence interval is at most the given tolerance, or until the time
+     * budget runs out. Blocks of trials are sized from the variance seen so
+     * far, so few trials are run past the point where the tolerance is met,
+     * and from the time taken by the trials so far, so a block does not run
+     * much past the budget. Only the first MIN_ADAPTIVE_TRIALS trials are run
+     * whatever the budget. Unless the budget runs out, the number of trials
+     * only depends on the seed.
+     * 
+     * @param N
+     * @param tolerance
+     *            wanted half-width of the 95% confidence interval
+     * @param timeBudgetMillis
+     *            maximum running time, or 0 for no limit
+     * @param sampling
+     *            how closed sites are chosen
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param threads
+     *            number of worker threads (1 runs everything sequentially)
+     */
+    public PercolationStats(final int N, final double tolerance,
+            final long timeBudgetMillis, final Sampling sampling,
+            final long seed, final int threads) {
+        this(Lattice.square(N), tolerance, timeBudgetMillis, sampling, seed,
+                threads);
+    }
+
+    /**
+     * Runs executions on the given lattice until the half-width of the 95%
+     * confidence interval is at most the given tolerance, or until the time
+     * budget runs out.
+     * 
+     * @param lattice
+     * @param tolerance
+     *            wanted half-width of the 95% confidence interval
+     * @param timeBudgetMillis
+     *            maximum running time, or 0 for no limit
+     * @param sampling
+     *            how closed sites are chosen
+     * @param seed
+     *            base seed of the per-trial random generators
+     * @param threads
+     *            number of worker threads (1 runs everything sequentially)
+     */
+    public PercolationStats(final Lattice lattice, final double tolerance,
+            final long timeBudgetMillis, final Sampling sampling,
+            final long seed, final int threads) {
+        this(lattice, tolerance, timeBudgetMillis, sampling, seed, threads,
+                SYSTEM_CLOCK);
+    }
+
+    /**
+     * Same as above, with the time budget measured on the given clock.
+     */
+    PercolationStats(final Lattice lattice, final double tolerance,
+            final long timeBudgetMillis, final Sampling sampling,
+            final long seed, final int threads, final Clock clock) {
+        if (threads <= 0 || !(tolerance > 0))
             throw new IllegalArgumentException(
                     "Arguments must be greater than 0");
+        if (timeBudgetMillis < 0)
+            throw new IllegalArgumentException(
+                    "Time budget must not be negative");
+        if (lattice == null)
+            throw new NullPointerException("Lattice must not be null");
+        if (sampling == null)
+            throw new NullPointerException("Sampling must not be null");
+
+        thresholds = new RunningStats();
+
+        final long start = clock.nanoTime();
+        final long budget = timeBudgetMillis * 1000000L;
+        final ForkJoinPool pool = newPool(threads);
+        try {
+            final Workspaces workspaces = new Workspaces(lattice, sampling);
+            int from = 0;
+            int block = MIN_ADAPTIVE_TRIALS;
+
+            while (block > 0) {
+                thresholds.merge(runBlock(pool, workspaces, seed, from, from
+                        + block));
+                from += block;
+
+                if (thresholds.halfWidth() <= tolerance) {
+                    break;
+                }
+                block = nextBlock(thresholds, tolerance);
+
+                if (budget > 0) {
+                    // as many trials as the time left allows at the pace so
+                    // far
+                    final long elapsed = clock.nanoTime() - start;
+                    final long fit = (budget - elapsed) / (elapsed / from + 1);
+                    block = (int) Math.max(0, Math.min(block, fit));
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Number of trials to run next so that the confidence interval reaches the
+     * tolerance, assuming the variance stays as it is now, bounded to
+     * [TRIALS_PER_TASK, TRIALS_PER_BLOCK]. Returns 0 when no more trials fit in
+     * an int.
+     */
+    private static int nextBlock(final RunningStats stats,
+            final double tolerance) {
+        final double ratio = 1.96 * stats.stddev() / tolerance;
+        final double needed = Math.ceil(ratio * ratio) - stats.count();
+        final long room = Integer.MAX_VALUE - stats.count();
+
+        final long block = (long) Math.max(TRIALS_PER_TASK,
+                Math.min(needed, TRIALS_PER_BLOCK));
+        return (int) Math.min(block, room);
+    }
+
+    /**
+     * Pool for the given number of threads, or null to run everything in the
+     * calling thread.
+     */
+    private static ForkJoinPool newPool(final int threads) {
+        if (threads == 1) {
+            return null;
+        }
+        return new ForkJoinPool(threads);
+    }
+
+    /**
+     * Runs trials [from, to) on the pool, or in the calling thread if there is
+     * no pool.
+     */
+    private static RunningStats runBlock(final ForkJoinPool pool,
+            final Workspaces workspaces, final long seed, final int from,
+            final int to) {
+        final TrialTask block = new TrialTask(workspaces, seed, from, to);
+
+        if (pool == null) {
+            return block.computeSequentially();
+        }
+        return pool.invoke(block);
+    }
+
+    /**
+     * New system with all sites blocked: Percolation for the square lattice,
+     * LatticePercolation for any other one.
+     */
+    private static PercolationSystem newSystem(final Lattice lattice) {
+        if (lattice.isSquare()) {
+            return new Percolation(lattice.side());
+        }
+        return new LatticePercolation(lattice);
+    }
+
+    /**
+     * Runs a single execution: opens random closed sites until the system
+     * percolates and returns the fraction of opened sites.
+     */
+    private static double trial(final PercolationSystem perc,
+            final SplittableRandom random) {
+        final int sites = perc.sites();
+        int p;
+        double opened = 0;
+
+        perc.reset();
+        while (!perc.percolates()) {
+
+            do {
+                p = random.nextInt(sites);
+            } while (perc.isOpenSite(p)); // repeat until site is closed
+
+            perc.openSite(p);
+            opened++;
+        }
+
+        return opened / sites;
+    }
+
+    /**
+     * Runs a single execution taking the sites from a random permutation, so
+     * every draw opens a new site.
+     */
+    private static double trial(final PercolationSystem perc,
+            final SitePermutation order, final SplittableRandom random) {
+        double opened = 0;
+
+        perc.reset();
+        order.restart();
+        while (!perc.percolates()) {
+            perc.openSite(order.next(random));
+            opened++;
+        }
+
+        return opened / perc.sites();
+    }
+
+    /**
+     * Runs a single execution with the flat union-find pass of
+     * ThresholdFinder.
+     */
+    private static double trial(final ThresholdFinder finder,
+            final SitePermutation order, final SplittableRandom random) {
+        return (double) finder.percolationPoint(order, random) / finder.size();
+    }
+
+    /**
+     * Base seed for runs that are not meant to be reproduced. StdRandom's seed
+     * is the same for the whole JVM, so it would give every instance the same
+     * trials.
+     */
+    static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Random generator of the given trial. The trial number is spread over the
+     * 64 bits with the SplitMix64 finalizer so that consecutive trials get
+     * unrelated seeds.
+     */
+    private static SplittableRandom trialRandom(final long seed,
+            final long trial) {
+        long z = seed + (trial + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    /**
+     * What a worker needs to run trials without allocating: the system (or
+     * the finder) and the permutation, all reset by every trial.
+     */
+    private static final class Workspace {
+        private final PercolationSystem system;
+        private final ThresholdFinder finder;
+        private final SitePermutation order;
+
+        Workspace(final Lattice lattice, final Sampling sampling) {
+            if (sampling == Sampling.PRESHUFFLED) {
+                system = null;
+                finder = new ThresholdFinder(lattice);
+            } else {
+                system = newSystem(lattice);
+                finder = null;
+            }
+            if (sampling == Sampling.REJECTION) {
+                order = null;
+            } else {
+                order = new SitePermutation(lattice.sites());
+            }
+        }
+    }
+
+    /**
+     * Workspaces of a run, handed out to the tasks and given back when they
+     * are done. A new one is only made when all the others are in use.
+     */
+    private static final class Workspaces {
+        private final Lattice lattice;
+        private final Sampling sampling;
+        private final ConcurrentLinkedQueue<Workspace> spare;
+
+        Workspaces(final Lattice l, final Sampling m) {
+            lattice = l;
+            sampling = m;
+            spare = new ConcurrentLinkedQueue<Workspace>();
+        }
+
+        Workspace take() {
+            final Workspace workspace = spare.poll();
+            if (workspace == null) {
+                return new Workspace(lattice, sampling);
+            }
+            return workspace;
+        }
+
+        void give(final Workspace workspace) {
+            spare.offer(workspace);
+        }
+    }
+
+    /**
+     * Runs trials [lo, hi), splitting the range in halves until it is small
+     * enough to be run by a single worker. The halves are always merged left
+     * to right, so the result does not depend on which thread ran what.
+     */
+    private static final class TrialTask extends RecursiveTask<RunningStats> {
+        private static final long serialVersionUID = 1L;
 
-        thresholds = new double[T];
+        private final Workspaces workspaces;
+        private final long seed;
+        private final int lo;
+        private final int hi;
 
-        final double totalSites = N * N;
+        TrialTask(final Workspaces w, final long s, final int from,
+                final int to) {
+            workspaces = w;
+            seed = s;
+            lo = from;
+            hi = to;
+        }
 
-        for (int i = 0; i < T; i++) {
-            final Percolation perc = new Percolation(N); // reset
-            boolean percolates = false;
-            int p, q;
-            double opened = 0;
+        @Override
+        protected RunningStats compute() {
+            if (hi - lo <= TRIALS_PER_TASK) {
+                return runTrials();
+            }
 
-            while (!percolates) {
+            final int mid = (lo + hi) >>> 1;
+            final TrialTask right = new TrialTask(workspaces, seed, mid, hi);
+            right.fork();
 
-                do {
-                    p = StdRandom.uniform(1, N + 1); // between [a, b)
-                    q = StdRandom.uniform(1, N + 1);
-                } while (perc.isOpen(p, q)); // repeat until site is
-                                             // closed
+            final RunningStats stats = new TrialTask(workspaces, seed, lo, mid)
+                    .compute();
+            stats.merge(right.join());
+            return stats;
+        }
 
-                perc.open(p, q);
-                opened++;
-                percolates = perc.percolates();
+        /**
+         * Same as compute() but in the calling thread, without forking.
+         */
+        RunningStats computeSequentially() {
+            if (hi - lo <= TRIALS_PER_TASK) {
+                return runTrials();
             }
 
-            thresholds[i] = opened / totalSites;
+            final int mid = (lo + hi) >>> 1;
+            final RunningStats stats = new TrialTask(workspaces, seed, lo, mid)
+                    .computeSequentially();
+            stats.merge(new TrialTask(workspaces, seed, mid, hi)
+                    .computeSequentially());
+            return stats;
+        }
+
+        private RunningStats runTrials() {
+            final RunningStats stats = new RunningStats();
+            final Workspace workspace = workspaces.take();
+
+            if (workspaces.sampling == Sampling.PERMUTATION) {
+                for (int i = lo; i < hi; i++) {
+                    stats.add(trial(workspace.system, workspace.order,
+                            trialRandom(seed, i)));
+                }
+            } else if (workspaces.sampling == Sampling.PRESHUFFLED) {
+                for (int i = lo; i < hi; i++) {
+                    stats.add(trial(workspace.finder, workspace.order,
+                            trialRandom(seed, i)));
+                }
+            } else {
+                for (int i = lo; i < hi; i++) {
+                    stats.add(trial(workspace.system, trialRandom(seed, i)));
+                }
+            }
+
+            workspaces.give(workspace);
+            return stats;
         }
     }
 
+    /**
+     * Number of executions that were run
+     * 
+     * @return
+     */
+    public long trials() {
+        return thresholds.count();
+    }
+
     /**
      * Sample mean of percolation threshold
      * 
      * @return
      */
     public double mean() {
-        return StdStats.mean(thresholds);
+        return thresholds.mean();
     }
 
     /**
@@ -71,14 +658,8 @@ public class PercolationStats {
      * @return
      */
     public double stddev() {
-        double stddev = Double.NaN;
-
-        // don't compute it for single execution
-        if (thresholds.length > 1) {
-            stddev = StdStats.stddev(thresholds);
-        }
-
-        return stddev;
+        // NaN for a single execution
+        return thresholds.stddev();
     }
 
     /**
@@ -87,7 +668,7 @@ public class PercolationStats {
      * @return
      */
     public double confidenceLo() {
-        return mean() - (1.96 * stddev() / Math.sqrt(thresholds.length));
+        return thresholds.confidenceLo();
     }
 
     /**
@@ -96,7 +677,7 @@ public class PercolationStats {
      * @return
      */
     public double confidenceHi() {
-        return mean() + (1.96 * stddev() / Math.sqrt(thresholds.length));
+        return thresholds.confidenceHi();
     }
 
     /**
@@ -111,11 +692,37 @@ public class PercolationStats {
         final int inputN = new Integer(args[0]).intValue();
         final int inputT = new Integer(args[1]).intValue();
 
-        final PercolationStats percStats = new PercolationStats(inputN, inputT);
+        final int threads;
+        if (args.length > 2) {
+            threads = Integer.parseInt(args[2]);
+        } else {
+            threads = 1;
+        }
+
+        final Sampling sampling;
+        if (args.length > 3) {
+            sampling = Sampling.valueOf(args[3]);
+        } else {
+            sampling = Sampling.REJECTION;
+        }
+
+        final Lattice lattice;
+        if (args.length > 4) {
+            lattice = Lattice.of(args[4], inputN);
+        } else {
+            lattice = Lattice.square(inputN);
+        }
+
+        final PercolationStats percStats = new PercolationStats(lattice,
+                inputT, sampling, newSeed(), threads);
 
         System.out.println("mean                    = " + percStats.mean());
         System.out.println("stddev                  = " + percStats.stddev());
         System.out.println("95% confidence interval = "
                 + percStats.confidenceLo() + ", " + percStats.confidenceHi());
+
+        if (Metrics.sink() instanceof MetricsRecorder) {
+            System.out.println(Metrics.sink());
+        }
     }
 }
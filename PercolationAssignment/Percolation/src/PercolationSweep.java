@@ -0,0 +1,160 @@
+/**
+ * Execution: java PercolationSweep sizes T [threads] [sampling] [lattice]
+ *
+ * Dependencies: Lattice.java PercolationStats.java
+ *
+ * Estimates the percolation threshold for many grid sizes in a single run,
+ * so a sweep pays the JVM startup and the JIT warmup only once. All sizes
+ * share the same fork-join pool, and a CSV line with the statistics of every
+ * size is printed as soon as its trials are done:
+ *
+ * N,trials,mean,stddev,confidenceLo,confidenceHi,millis
+ *
+ * Sizes are given as a comma separated list of single values and of
+ * from:to:step ranges, e.g. "16,32,64:1024:64".
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.io.PrintStream;
+import java.util.concurrent.ForkJoinPool;
+
+public class PercolationSweep {
+
+    public static final String HEADER = "N,trials,mean,stddev,confidenceLo,"
+            + "confidenceHi,millis";
+
+    private PercolationSweep() {
+    }
+
+    /**
+     * Parses a list of sizes such as "16,32,64:1024:64", where from:to:step
+     * stands for from, from + step, ... up to to (included).
+     */
+    public static int[] parseSizes(final String spec) {
+        int count = 0;
+        int[] sizes = new int[16];
+
+        for (final String item : spec.split(",")) {
+            final String[] range = item.trim().split(":");
+            final int from = Integer.parseInt(range[0]);
+            final int to;
+            final int step;
+
+            if (range.length == 1) {
+                to = from;
+                step = 1;
+            } else if (range.length == 3) {
+                to = Integer.parseInt(range[1]);
+                step = Integer.parseInt(range[2]);
+            } else {
+                throw new IllegalArgumentException("Bad range: " + item);
+            }
+            if (from <= 0 || step <= 0 || to < from)
+                throw new IllegalArgumentException("Bad range: " + item);
+
+            for (long n = from; n <= to; n += step) {
+                if (count == sizes.length) {
+                    final int[] grown = new int[2 * count];
+                    System.arraycopy(sizes, 0, grown, 0, count);
+                    sizes = grown;
+                }
+                sizes[count++] = (int) n;
+            }
+        }
+
+        final int[] result = new int[count];
+        System.arraycopy(sizes, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Runs T trials for every size on the given kind of lattice, in order,
+     * over a single pool of the given number of threads. A CSV header and then
+     * a line per size are written to out (if not null) as they complete.
+     *
+     * @return the statistics of every size
+     */
+    public static PercolationStats[] run(final int[] sizes, final int T,
+            final PercolationStats.Sampling sampling, final String lattice,
+            final long seed, final int threads, final PrintStream out) {
+        if (threads <= 0)
+            throw new IllegalArgumentException(
+                    "Arguments must be greater than 0");
+
+        final PercolationStats[] results = new PercolationStats[sizes.length];
+        final ForkJoinPool pool;
+        if (threads == 1) {
+            pool = null;
+        } else {
+            pool = new ForkJoinPool(threads);
+        }
+
+        if (out != null) {
+            out.println(HEADER);
+        }
+
+        try {
+            for (int i = 0; i < sizes.length; i++) {
+                final long start = System.nanoTime();
+                results[i] = new PercolationStats(Lattice.of(lattice,
+                        sizes[i]), T, sampling, seed, pool, null);
+                final long millis = (System.nanoTime() - start) / 1000000;
+
+                if (out != null) {
+                    out.println(sizes[i] + "," + results[i].trials() + ","
+                            + results[i].mean() + "," + results[i].stddev()
+                            + "," + results[i].confidenceLo() + ","
+                            + results[i].confidenceHi() + "," + millis);
+                    out.flush();
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Takes the sizes, the number of trials per size and optionally the
+     * number of threads, the sampling and the lattice, and prints the CSV
+     * table.
+     *
+     * @param args
+     */
+    public static void main(String[] args) {
+        final int[] sizes = parseSizes(args[0]);
+        final int T = Integer.parseInt(args[1]);
+
+        final int threads;
+        if (args.length > 2) {
+            threads = Integer.parseInt(args[2]);
+        } else {
+            threads = 1;
+        }
+
+        final PercolationStats.Sampling sampling;
+        if (args.length > 3) {
+            sampling = PercolationStats.Sampling.valueOf(args[3]);
+        } else {
+            sampling = PercolationStats.Sampling.PRESHUFFLED;
+        }
+
+        final String lattice;
+        if (args.length > 4) {
+            lattice = args[4];
+        } else {
+            lattice = "square";
+        }
+
+        run(sizes, T, sampling, lattice, PercolationStats.newSeed(), threads,
+                System.out);
+    }
+
+}
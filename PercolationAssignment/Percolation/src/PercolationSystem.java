@@ -0,0 +1,41 @@
+/**
+ * Dependencies: none
+ *
+ * A percolation system whose sites are addressed by a flat index from 0. It is
+ * what PercolationStats needs to run a trial, whatever the lattice.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+public interface PercolationSystem {
+
+    /**
+     * Total number of sites.
+     */
+    int sites();
+
+    /**
+     * Checks whether the site at the given flat index is open.
+     */
+    boolean isOpenSite(int site);
+
+    /**
+     * Opens the site at the given flat index if it is not already, and
+     * connects it with its opened neighbors.
+     */
+    void openSite(int site);
+
+    /**
+     * Checks whether some open path joins the top and the bottom boundaries.
+     */
+    boolean percolates();
+
+    /**
+     * Blocks all the sites again, reusing the memory of the system.
+     */
+    void reset();
+
+}
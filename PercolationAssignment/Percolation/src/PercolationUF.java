@@ -0,0 +1,260 @@
+/**
+ * Dependencies: Metrics.java
+ *
+ * Union-find engine specialised for percolation systems. Sites are stored in
+ * flat primitive arrays (int parent, byte rank) and trees are kept shallow with
+ * union by rank and path halving.
+ *
+ * Instead of the classic virtual top/bottom tokens, every root carries two
+ * status bits telling whether its component touches the top row and/or the
+ * bottom row. Fullness is then a property of the component itself, so a single
+ * structure answers both isFull() and percolates() without backwash.
+ *
+ * Changes can be rolled back to a checkpoint: after checkpoint(), the old
+ * state of every entry is logged before it is written, and rollback() replays
+ * the log backwards, in time proportional to the changes undone. Paths are not
+ * halved while logging, so finds do not add to the log, and union by rank
+ * alone keeps trees logarithmic.
+ *
+ * With Metrics enabled, every find reports the number of steps of its walk to
+ * the root (each step skips a level when halving) and every union the rank of
+ * the new root.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.util.Arrays;
+
+public class PercolationUF {
+
+    public static final byte TOP = 1; // component touches the first row
+    public static final byte BOTTOM = 2; // component touches the last row
+    public static final byte BOTH = TOP | BOTTOM; // component percolates
+
+    private final int[] parent; // parent[i] = parent of site i
+    private final byte[] rank; // rank[i] = upper bound of the height of i
+    private final byte[] status; // status[root] = TOP and/or BOTTOM bits
+
+    private boolean logging; // changes are logged for rollback()
+    private int logSize; // entries in the log
+    private int[] logSite; // site whose entries were changed
+    private int[] logParent; // its parent before the change
+    private short[] logState; // its rank << 8 | status before the change
+
+    /**
+     * Initializes M sites, each one in its own component and with no status
+     * bits set.
+     *
+     * @param M
+     *            number of sites
+     */
+    public PercolationUF(final int M) {
+        this(M, true);
+    }
+
+    /**
+     * Allocates M sites, each one in its own component if initialize is true.
+     * Otherwise no site is set up and every site must go through makeSet()
+     * before it is used, so that the O(M) setup can be spread, e.g. over the
+     * threads that each handle part of the sites.
+     *
+     * @param M
+     *            number of sites
+     * @param initialize
+     *            whether to make every site a component of its own
+     */
+    public PercolationUF(final int M, final boolean initialize) {
+        if (M <= 0)
+            throw new IllegalArgumentException(
+                    "Argument must be greater than 0");
+
+        parent = new int[M];
+        rank = new byte[M];
+        status = new byte[M];
+
+        if (initialize) {
+            for (int i = 0; i < M; i++) {
+                parent[i] = i;
+            }
+        }
+    }
+
+    /**
+     * Number of sites handled by this structure.
+     */
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * Returns the root of the component containing site p. Every visited site
+     * is made to point to its grandparent (path halving), so the walk is a
+     * single pass with no recursion or extra storage.
+     */
+    public int find(final int p) {
+        int current = p;
+        int steps = 0; // dead code for the JIT when metrics are disabled
+
+        if (logging) {
+            while (parent[current] != current) {
+                current = parent[current];
+                steps++;
+            }
+        } else {
+            while (parent[current] != current) {
+                parent[current] = parent[parent[current]];
+                current = parent[current];
+                steps++;
+            }
+        }
+
+        if (Metrics.ENABLED) {
+            Metrics.sink().find(steps);
+        }
+        return current;
+    }
+
+    /**
+     * Merges the components of sites p and q, combining their status bits.
+     *
+     * @return the status bits of the resulting component
+     */
+    public byte union(final int p, final int q) {
+        final int rootP = find(p);
+        final int rootQ = find(q);
+
+        if (rootP == rootQ) {
+            return status[rootP];
+        }
+
+        final byte merged = (byte) (status[rootP] | status[rootQ]);
+        final int root;
+
+        if (logging) {
+            save(rootP);
+            save(rootQ);
+        }
+
+        // make the shorter tree point to the taller one
+        if (rank[rootP] < rank[rootQ]) {
+            parent[rootP] = rootQ;
+            root = rootQ;
+        } else if (rank[rootP] > rank[rootQ]) {
+            parent[rootQ] = rootP;
+            root = rootP;
+        } else {
+            parent[rootQ] = rootP;
+            rank[rootP]++;
+            root = rootP;
+        }
+
+        status[root] = merged;
+
+        if (Metrics.ENABLED) {
+            Metrics.sink().union(rank[root]);
+        }
+        return merged;
+    }
+
+    /**
+     * Turns site p back into a component of its own with the given status
+     * bits. Only valid when no other site points to p, e.g. when p is being
+     * opened for the first time since the sites around it were reset.
+     */
+    public void makeSet(final int p, final byte bits) {
+        if (logging) {
+            save(p);
+        }
+        parent[p] = p;
+        rank[p] = 0;
+        status[p] = bits;
+    }
+
+    /**
+     * Adds the given status bits to the component containing site p.
+     *
+     * @return the status bits of the component after marking it
+     */
+    public byte mark(final int p, final byte bits) {
+        final int root = find(p);
+        if (logging) {
+            save(root);
+        }
+        status[root] |= bits;
+        return status[root];
+    }
+
+    /**
+     * Status bits of the component containing site p.
+     */
+    public byte status(final int p) {
+        return status[find(p)];
+    }
+
+    /**
+     * Checks whether sites p and q are in the same component.
+     */
+    public boolean connected(final int p, final int q) {
+        return find(p) == find(q);
+    }
+
+    /**
+     * Starts (or keeps) logging changes, and returns a mark to give to
+     * rollback() to come back to the current state.
+     */
+    public int checkpoint() {
+        if (logSite == null) {
+            logSite = new int[16];
+            logParent = new int[16];
+            logState = new short[16];
+        }
+        logging = true;
+        return logSize;
+    }
+
+    /**
+     * Undoes every change made since checkpoint() returned the given mark.
+     * Marks taken after it are no longer valid.
+     */
+    public void rollback(final int mark) {
+        if (!logging || mark < 0 || mark > logSize)
+            throw new IllegalStateException("No such checkpoint");
+
+        while (logSize > mark) {
+            logSize--;
+            final int site = logSite[logSize];
+            parent[site] = logParent[logSize];
+            rank[site] = (byte) (logState[logSize] >> 8);
+            status[site] = (byte) logState[logSize];
+        }
+    }
+
+    /**
+     * Keeps all the changes, drops every checkpoint and stops logging.
+     */
+    public void release() {
+        logging = false;
+        logSize = 0;
+    }
+
+    /**
+     * Logs the current entries of site p.
+     */
+    private void save(final int p) {
+        if (logSize == logSite.length) {
+            final int capacity = 2 * logSize;
+            logSite = Arrays.copyOf(logSite, capacity);
+            logParent = Arrays.copyOf(logParent, capacity);
+            logState = Arrays.copyOf(logState, capacity);
+        }
+
+        logSite[logSize] = p;
+        logParent[logSize] = parent[p];
+        logState[logSize] = (short) (rank[p] << 8 | (status[p] & 0xFF));
+        logSize++;
+    }
+
+}
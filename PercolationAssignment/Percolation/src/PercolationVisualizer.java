@@ -1,7 +1,7 @@
 /****************************************************************************
  *  Compilation:  javac PercolationVisualizer.java
  *  Execution:    java PercolationVisualizer input.txt
- *  Dependencies: Percolation.java StdDraw.java In.java
+ *  Dependencies: Percolation.java SiteBitSet.java StdDraw.java In.java
  *
  *  This program takes the name of a file as a command-line argument.
  *  From that file, it
@@ -32,10 +32,11 @@ public class PercolationVisualizer {
         StdDraw.filledSquare(N/2.0, N/2.0, N/2.0);
 
         // draw N-by-N grid
+        final SiteBitSet full = perc.fullSites();
         int opened = 0;
         for (int row = 1; row <= N; row++) {
             for (int col = 1; col <= N; col++) {
-                if (perc.isFull(row, col)) {
+                if (full.get((row - 1) * N + (col - 1))) {
                     StdDraw.setPenColor(StdDraw.BOOK_LIGHT_BLUE);
                     opened++;
                 }
@@ -0,0 +1,124 @@
+/**
+ * Dependencies: none
+ *
+ * Streaming accumulator for the mean and the standard deviation of a sequence
+ * of values, in constant memory. Values are added one at a time with Welford's
+ * update, and two accumulators filled independently (e.g. by two threads) can
+ * be merged with the pairwise formula of Chan et al.
+ *
+ * All queries are O(1), so partial results can be read while values are still
+ * being added.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+public class RunningStats {
+
+    private static final double CONFIDENCE_95 = 1.96;
+
+    private long count;
+    private double mean;
+    private double m2; // sum of squared differences from the mean
+
+    /**
+     * Creates an empty accumulator.
+     */
+    public RunningStats() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+    }
+
+    /**
+     * Creates a copy of the given accumulator.
+     */
+    public RunningStats(final RunningStats that) {
+        count = that.count;
+        mean = that.mean;
+        m2 = that.m2;
+    }
+
+    /**
+     * Adds a value.
+     */
+    public void add(final double x) {
+        count++;
+        final double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    /**
+     * Adds all the values accumulated by that, which is left unchanged.
+     */
+    public void merge(final RunningStats that) {
+        if (that.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = that.count;
+            mean = that.mean;
+            m2 = that.m2;
+            return;
+        }
+
+        final long total = count + that.count;
+        final double delta = that.mean - mean;
+
+        mean += delta * that.count / total;
+        m2 += that.m2 + delta * delta * ((double) count * that.count / total);
+        count = total;
+    }
+
+    /**
+     * Number of values added.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Sample mean, NaN if no value was added.
+     */
+    public double mean() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return mean;
+    }
+
+    /**
+     * Sample standard deviation, NaN for fewer than two values.
+     */
+    public double stddev() {
+        if (count < 2) {
+            return Double.NaN;
+        }
+        return Math.sqrt(m2 / (count - 1));
+    }
+
+    /**
+     * Half-width of the 95% confidence interval of the mean.
+     */
+    public double halfWidth() {
+        return CONFIDENCE_95 * stddev() / Math.sqrt(count);
+    }
+
+    /**
+     * Lower bound of the 95% confidence interval of the mean.
+     */
+    public double confidenceLo() {
+        return mean() - halfWidth();
+    }
+
+    /**
+     * Upper bound of the 95% confidence interval of the mean.
+     */
+    public double confidenceHi() {
+        return mean() + halfWidth();
+    }
+
+}
@@ -0,0 +1,214 @@
+/**
+ * Dependencies: none
+ *
+ * Bit-packed open/closed state for the sites of a N-by-N grid, stored row by
+ * row in a flat long[] (one bit per site). A 32768-by-32768 grid takes 128 MB
+ * instead of the 1 GB of a boolean[][], and checking a neighbor is a shift and
+ * a mask on a single array, without the extra hop through a row array.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.util.Arrays;
+
+public class SiteBitSet {
+
+    public static final int UP = 1; // neighbor in the previous row
+    public static final int LEFT = 2; // neighbor in the previous column
+    public static final int DOWN = 4; // neighbor in the next row
+    public static final int RIGHT = 8; // neighbor in the next column
+
+    private static final int ADDRESS_BITS = 6; // 64 sites per word
+
+    private final int gridSize; // sites per row
+    private final int sites;
+    private final long[] words;
+
+    /**
+     * Creates the state for a N-by-N grid, with all sites closed.
+     */
+    public SiteBitSet(final int N) {
+        this(N, N);
+    }
+
+    /**
+     * Creates the state for a grid of the given number of rows and columns,
+     * with all sites closed. Neighbors are taken within that grid.
+     */
+    public SiteBitSet(final int rows, final int columns) {
+        if (rows <= 0 || columns <= 0)
+            throw new IllegalArgumentException(
+                    "Arguments must be greater than 0");
+        if ((long) rows * columns > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Grid is too big");
+
+        gridSize = columns;
+        sites = rows * columns;
+        words = new long[((sites - 1) >>> ADDRESS_BITS) + 1];
+    }
+
+    /**
+     * Number of sites of the grid (rows * columns).
+     */
+    public int size() {
+        return sites;
+    }
+
+    /**
+     * Checks whether the site at the given flat index (row * N + column, both
+     * from 0) is open.
+     */
+    public boolean get(final int site) {
+        return (words[site >>> ADDRESS_BITS] & (1L << site)) != 0;
+    }
+
+    /**
+     * Marks the site at the given flat index as open.
+     *
+     * @return true if the site was closed before
+     */
+    public boolean set(final int site) {
+        final int word = site >>> ADDRESS_BITS;
+        final long bit = 1L << site; // shift distance is taken modulo 64
+        final boolean wasClosed = (words[word] & bit) == 0;
+        words[word] |= bit;
+        return wasClosed;
+    }
+
+    /**
+     * Marks the site at the given flat index as closed.
+     */
+    public void clear(final int site) {
+        words[site >>> ADDRESS_BITS] &= ~(1L << site);
+    }
+
+    /**
+     * Marks the sites [from, to) as open, a whole word at a time.
+     */
+    public void setRange(final int from, final int to) {
+        if (from >= to) {
+            return;
+        }
+
+        final int first = from >>> ADDRESS_BITS;
+        final int last = (to - 1) >>> ADDRESS_BITS;
+        final long firstMask = -1L << from;
+        final long lastMask = -1L >>> -to; // shift distance taken modulo 64
+
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+        } else {
+            words[first] |= firstMask;
+            for (int i = first + 1; i < last; i++) {
+                words[i] = -1L;
+            }
+            words[last] |= lastMask;
+        }
+    }
+
+    /**
+     * Index of the first open site at or after from, or -1 if there is none.
+     */
+    public int nextSetBit(final int from) {
+        if (from >= sites) {
+            return -1;
+        }
+
+        int i = from >>> ADDRESS_BITS;
+        long word = words[i] & (-1L << from);
+
+        while (word == 0) {
+            i++;
+            if (i == words.length) {
+                return -1;
+            }
+            word = words[i];
+        }
+
+        final int site = (i << ADDRESS_BITS) + Long.numberOfTrailingZeros(word);
+        if (site >= sites) {
+            return -1;
+        }
+        return site;
+    }
+
+    /**
+     * Index of the first closed site at or after from, or size() if there is
+     * none.
+     */
+    public int nextClearBit(final int from) {
+        if (from >= sites) {
+            return sites;
+        }
+
+        int i = from >>> ADDRESS_BITS;
+        long word = ~words[i] & (-1L << from);
+
+        while (word == 0) {
+            i++;
+            if (i == words.length) {
+                return sites;
+            }
+            word = ~words[i];
+        }
+
+        return Math.min(sites, (i << ADDRESS_BITS)
+                + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * Closes all the sites again.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * Number of open sites.
+     */
+    public int cardinality() {
+        int count = 0;
+
+        for (final long word : words) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Open neighbors of the given site, as a combination of the UP, LEFT, DOWN
+     * and RIGHT flags. Neighbors outside the grid are never reported.
+     */
+    public int openNeighbors(final int site) {
+        final int column = site % gridSize;
+        int mask = 0;
+
+        if (site >= gridSize && get(site - gridSize)) {
+            mask |= UP;
+        }
+        if (column > 0 && get(site - 1)) {
+            mask |= LEFT;
+        }
+        if (site < sites - gridSize && get(site + gridSize)) {
+            mask |= DOWN;
+        }
+        if (column < gridSize - 1 && get(site + 1)) {
+            mask |= RIGHT;
+        }
+
+        return mask;
+    }
+
+    /**
+     * Returns a copy of the words backing this set: bit (i % 64) of word
+     * (i / 64) is the state of site i.
+     */
+    public long[] toLongArray() {
+        return words.clone();
+    }
+
+}
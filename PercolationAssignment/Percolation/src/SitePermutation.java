@@ -0,0 +1,94 @@
+/**
+ * Dependencies: none
+ *
+ * Draws the sites 0..M-1 in random order, without repetition, one at a time.
+ * It is a Fisher-Yates shuffle run lazily: each call to next() performs a
+ * single swap, so drawing k sites costs O(k) no matter how many of them are
+ * already open.
+ *
+ * The slots array is never reinitialized. A slot whose stamp differs from the
+ * current generation is taken to hold its own index, so restart() is O(1) and
+ * one instance can be reused across trials without any allocation.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+public class SitePermutation {
+
+    private final int[] slots; // slots[i] = site at position i of the order
+    private final int[] stamps; // generation in which slots[i] was written
+    private int generation;
+    private int drawn; // number of sites already returned
+
+    /**
+     * Prepares a permutation of the sites 0..M-1.
+     */
+    public SitePermutation(final int M) {
+        if (M <= 0)
+            throw new IllegalArgumentException(
+                    "Argument must be greater than 0");
+
+        slots = new int[M];
+        stamps = new int[M];
+        generation = 1;
+        drawn = 0;
+    }
+
+    /**
+     * Forgets the sites drawn so far and starts a new random order.
+     */
+    public void restart() {
+        drawn = 0;
+        generation++;
+
+        if (generation == 0) { // wrapped around: stamps could match again
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Checks whether there are sites left to draw.
+     */
+    public boolean hasNext() {
+        return drawn < slots.length;
+    }
+
+    /**
+     * Returns a site that has not been drawn since the last restart, chosen
+     * uniformly at random among the remaining ones.
+     */
+    public int next(final SplittableRandom random) {
+        if (drawn == slots.length)
+            throw new NoSuchElementException("All sites drawn");
+
+        final int chosen = drawn + random.nextInt(slots.length - drawn);
+        final int site = slot(chosen);
+
+        // move the site at the current position into the chosen slot
+        write(chosen, slot(drawn));
+        drawn++;
+
+        return site;
+    }
+
+    private int slot(final int i) {
+        if (stamps[i] == generation) {
+            return slots[i];
+        }
+        return i;
+    }
+
+    private void write(final int i, final int site) {
+        slots[i] = site;
+        stamps[i] = generation;
+    }
+
+}
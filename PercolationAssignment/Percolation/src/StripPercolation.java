@@ -0,0 +1,249 @@
+/**
+ * Execution: java StripPercolation N p threads [seed]
+ *
+ * Dependencies: PercolationUF.java SiteBitSet.java
+ *
+ * Percolation of a static N-by-N grid whose open sites are all known up
+ * front, computed on several cores. The grid is split into horizontal strips
+ * of rows which are labeled in parallel, each worker only joining sites of its
+ * own strip. Strips are then merged two by two up a fork-join tree by joining
+ * the open sites across the row boundary between them, so the merges of
+ * disjoint parts of the grid also run in parallel.
+ *
+ * All workers share a single PercolationUF, which is not initialized up front:
+ * each worker sets up the open sites of its own strip, so this O(N^2) step is
+ * parallel too. While labeling or merging, a worker only touches the trees of
+ * its own rows, which no other worker can reach until their parent task joins
+ * both halves. Once built, percolates() and isFull() answer like Percolation.
+ *
+ * Running it opens every site of a N-by-N grid with probability p and tells
+ * whether it percolates and how long labeling took.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class StripPercolation {
+
+    // strips per thread, so a slow strip does not leave the others idle
+    private static final int STRIPS_PER_THREAD = 4;
+
+    private final int gridSize; // number of sites of each grid's side
+    private final SiteBitSet grid; // one bit per site, set = open site
+    private final PercolationUF unionFind;
+    private final boolean percolates;
+
+    /**
+     * Labels the N-by-N grid whose open sites are set in open, over the given
+     * number of threads. The bitset must not change afterwards.
+     */
+    public StripPercolation(final int N, final SiteBitSet open,
+            final int threads) {
+        if (N <= 0 || threads <= 0)
+            throw new IllegalArgumentException(
+                    "Arguments must be greater than 0");
+        if ((long) N * N != open.size())
+            throw new IllegalArgumentException("Bitset size does not match");
+
+        gridSize = N;
+        grid = open;
+        // sites are set up by the strip that labels them, see label()
+        unionFind = new PercolationUF(open.size(), false);
+
+        final int strips = (int) Math.min(N, (long) threads
+                * STRIPS_PER_THREAD);
+        final StripTask all = new StripTask(0, strips, strips);
+
+        if (threads == 1) {
+            all.computeSequentially();
+        } else {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.invoke(all);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // the grid percolates if some site of the last row is full
+        boolean full = false;
+        int p = grid.nextSetBit(open.size() - N);
+
+        while (p != -1 && !full) {
+            full = unionFind.status(p) == PercolationUF.BOTH;
+            p = grid.nextSetBit(p + 1);
+        }
+        percolates = full;
+    }
+
+    /**
+     * First row of the given strip, out of the given number of strips.
+     */
+    private int firstRow(final int strip, final int strips) {
+        return (int) ((long) strip * gridSize / strips);
+    }
+
+    /**
+     * Sets up the open sites of rows [from, to) in the union-find, joins them
+     * with their open neighbors in the same rows, and gives the first and last
+     * rows of the grid their status. Closed sites are never set up, nor looked
+     * at afterwards.
+     */
+    private void label(final int from, final int to) {
+        final int end = to * gridSize;
+
+        int p = grid.nextSetBit(from * gridSize);
+
+        while (p != -1 && p < end) {
+            byte status = 0;
+
+            if (p < gridSize) {
+                status |= PercolationUF.TOP;
+            }
+            if (p >= grid.size() - gridSize) {
+                status |= PercolationUF.BOTTOM;
+            }
+            unionFind.makeSet(p, status);
+
+            final int neighbors = grid.openNeighbors(p);
+            if ((neighbors & SiteBitSet.LEFT) != 0) {
+                unionFind.union(p, p - 1);
+            }
+            // the row above the strip belongs to another worker
+            if ((neighbors & SiteBitSet.UP) != 0
+                    && p >= (from + 1) * gridSize) {
+                unionFind.union(p, p - gridSize);
+            }
+            p = grid.nextSetBit(p + 1);
+        }
+    }
+
+    /**
+     * Joins the open sites of the given row with the open sites right above.
+     */
+    private void merge(final int row) {
+        final int start = row * gridSize;
+        final int end = start + gridSize;
+
+        int p = grid.nextSetBit(start);
+
+        while (p != -1 && p < end) {
+            if (grid.get(p - gridSize)) {
+                unionFind.union(p, p - gridSize);
+            }
+            p = grid.nextSetBit(p + 1);
+        }
+    }
+
+    /**
+     * Labels strips [lo, hi), splitting them in halves that are labeled in
+     * parallel and then merged along the row between them.
+     */
+    private final class StripTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int strips;
+
+        StripTask(final int from, final int to, final int count) {
+            lo = from;
+            hi = to;
+            strips = count;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                label(firstRow(lo, strips), firstRow(hi, strips));
+                return;
+            }
+
+            final int mid = (lo + hi) >>> 1;
+            invokeAll(new StripTask(lo, mid, strips), new StripTask(mid, hi,
+                    strips));
+            merge(firstRow(mid, strips));
+        }
+
+        /**
+         * Same as compute() but in the calling thread, without forking.
+         */
+        void computeSequentially() {
+            label(0, gridSize);
+        }
+    }
+
+    private void checkBounds(final int row, final int column) {
+        if (row <= 0 || row > gridSize)
+            throw new IndexOutOfBoundsException("row index i out of bounds");
+        if (column <= 0 || column > gridSize)
+            throw new IndexOutOfBoundsException("column index j out of bounds");
+    }
+
+    private int xyTo1D(final int row, final int column) {
+        return ((row - 1) * gridSize) + (column - 1);
+    }
+
+    /**
+     * Checks whether the given site is open.
+     */
+    public boolean isOpen(final int row, final int column) {
+        checkBounds(row, column);
+        return grid.get(xyTo1D(row, column));
+    }
+
+    /**
+     * Checks whether the given site is opened and connected to the top row.
+     */
+    public boolean isFull(final int row, final int column) {
+        checkBounds(row, column);
+        final int q = xyTo1D(row, column);
+
+        return grid.get(q) && (unionFind.status(q) & PercolationUF.TOP) != 0;
+    }
+
+    /**
+     * The system percolates if some component touches both the first and the
+     * last row.
+     */
+    public boolean percolates() {
+        return percolates;
+    }
+
+    /**
+     * Takes the grid side N, the probability p of a site being open and the
+     * number of threads, and labels a random grid.
+     */
+    public static void main(String[] args) {
+        final int N = Integer.parseInt(args[0]);
+        final double p = Double.parseDouble(args[1]);
+        final int threads = Integer.parseInt(args[2]);
+        final SplittableRandom random;
+        if (args.length > 3) {
+            random = new SplittableRandom(Long.parseLong(args[3]));
+        } else {
+            random = new SplittableRandom();
+        }
+
+        final SiteBitSet open = new SiteBitSet(N);
+        for (int site = 0; site < open.size(); site++) {
+            if (random.nextDouble() < p) {
+                open.set(site);
+            }
+        }
+
+        final long start = System.nanoTime();
+        final StripPercolation perc = new StripPercolation(N, open, threads);
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.println("percolates = " + perc.percolates());
+        System.out.println("time (ms)  = " + elapsed / 1000000);
+    }
+
+}
@@ -0,0 +1,146 @@
+/**
+ * Dependencies: Lattice.java PercolationUF.java SitePermutation.java
+ *
+ * Finds the exact percolation point of a lattice (a N-by-N grid by default)
+ * for a given opening order with a single union-find pass. Sites are addressed
+ * by their flat index (row * N + column, both from 0, for the square lattice),
+ * and the pass stops as soon as some component touches both the top and the
+ * bottom boundaries.
+ *
+ * An open site is recognised by a stamp equal to the current pass number, and
+ * each site is turned into a fresh component when it is opened. Nothing has to
+ * be cleared between passes, so an instance can run any number of trials
+ * without touching the sites that were not opened.
+ *
+ *
+ * Date: October 18, 2026
+ *
+ * @author esloho
+ */
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class ThresholdFinder {
+
+    private final Lattice lattice;
+    private final int sites;
+    private final PercolationUF unionFind;
+    private final int[] neighbors; // scratch space for the lattice
+    private final int[] openedIn; // pass in which each site was opened
+    private int pass;
+
+    /**
+     * Prepares the structures for a N-by-N grid.
+     */
+    public ThresholdFinder(final int N) {
+        this(Lattice.square(N));
+    }
+
+    /**
+     * Prepares the structures for the given lattice.
+     */
+    public ThresholdFinder(final Lattice l) {
+        if (l == null)
+            throw new NullPointerException("Lattice must not be null");
+
+        lattice = l;
+        sites = l.sites();
+        unionFind = new PercolationUF(sites);
+        neighbors = new int[l.degree()];
+        openedIn = new int[sites];
+        pass = 0;
+    }
+
+    /**
+     * Number of sites of the lattice.
+     */
+    public int size() {
+        return sites;
+    }
+
+    /**
+     * Opens the sites in the given order, starting from a blocked grid, until
+     * the system percolates. Repeated sites are ignored.
+     *
+     * @return position in the order (from 1) of the site that makes the system
+     *         percolate, or -1 if it does not percolate after opening all of
+     *         them
+     */
+    public int percolationPoint(final int[] order) {
+        nextPass();
+
+        for (int k = 0; k < order.length; k++) {
+            final int p = order[k];
+            if (p < 0 || p >= sites)
+                throw new IndexOutOfBoundsException("site index out of bounds");
+
+            if (openedIn[p] != pass && openAndCheck(p)) {
+                return k + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Opens sites in the random order given by the permutation, starting from a
+     * blocked grid, until the system percolates. The permutation is restarted
+     * first, and sites after the percolation point are never drawn.
+     *
+     * @return number of sites opened when the system first percolates
+     */
+    public int percolationPoint(final SitePermutation order,
+            final SplittableRandom random) {
+        nextPass();
+        order.restart();
+
+        int opened = 0;
+        boolean percolates = false;
+
+        while (!percolates) {
+            percolates = openAndCheck(order.next(random));
+            opened++;
+        }
+
+        return opened;
+    }
+
+    private void nextPass() {
+        pass++;
+
+        if (pass == 0) { // wrapped around: old stamps could match again
+            Arrays.fill(openedIn, 0);
+            pass = 1;
+        }
+    }
+
+    /**
+     * Opens site p and joins it to its open neighbors.
+     *
+     * @return true if the component of p now percolates
+     */
+    private boolean openAndCheck(final int p) {
+        byte status = 0;
+
+        if (lattice.isTop(p)) {
+            status |= PercolationUF.TOP;
+        }
+        if (lattice.isBottom(p)) {
+            status |= PercolationUF.BOTTOM;
+        }
+
+        unionFind.makeSet(p, status);
+        openedIn[p] = pass;
+
+        final int count = lattice.neighbors(p, neighbors);
+        for (int i = 0; i < count; i++) {
+            if (openedIn[neighbors[i]] == pass) {
+                status = unionFind.union(p, neighbors[i]);
+            }
+        }
+
+        return status == PercolationUF.BOTH;
+    }
+
+}
@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class ClusterLabelerTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("grid", ".txt");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test method for {@link ClusterLabeler#addRow(boolean[])}. A U shape is
+     * only found to be a single cluster on its last row.
+     */
+    @Test
+    public void testClustersMergedLate() {
+        final ClusterLabeler labeler = new ClusterLabeler(3);
+        labeler.addRow(new boolean[] { true, false, true });
+        labeler.addRow(new boolean[] { true, false, true });
+        labeler.addRow(new boolean[] { true, true, true });
+        labeler.addRow(new boolean[] { false, true, false });
+        labeler.finish();
+
+        Assert.assertTrue(labeler.percolates());
+        Assert.assertEquals(1, labeler.clusters());
+        Assert.assertEquals(8, labeler.largestCluster());
+    }
+
+    /**
+     * Test method for {@link ClusterLabeler#clusterSizes()}.
+     */
+    @Test
+    public void testClusterSizes() {
+        final ClusterLabeler labeler = new ClusterLabeler(4);
+        labeler.addRow(new boolean[] { true, false, true, true });
+        labeler.addRow(new boolean[] { false, true, false, false });
+        labeler.addRow(new boolean[] { false, true, false, true });
+        labeler.finish();
+
+        Assert.assertFalse(labeler.percolates());
+        Assert.assertEquals(4, labeler.clusters());
+
+        final TreeMap<Long, Long> expected = new TreeMap<Long, Long>();
+        expected.put(1L, 2L);
+        expected.put(2L, 2L);
+        Assert.assertEquals(expected, labeler.clusterSizes());
+    }
+
+    /**
+     * Test method for {@link ClusterLabeler#percolates()}. Must agree with
+     * Percolation, and the cluster sizes must add up to the open sites, on
+     * random grids around the threshold.
+     */
+    @Test
+    public void testMatchesPercolation() {
+        final int n = 40;
+        final SplittableRandom random = new SplittableRandom(3);
+
+        for (int grid = 0; grid < 50; grid++) {
+            final Percolation perc = new Percolation(n);
+            final ClusterLabeler labeler = new ClusterLabeler(n);
+            final boolean[] row = new boolean[n];
+            long open = 0;
+
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    row[j] = random.nextDouble() < 0.59;
+                    if (row[j]) {
+                        perc.openSite(i * n + j);
+                        open++;
+                    }
+                }
+                labeler.addRow(row);
+            }
+            labeler.finish();
+
+            Assert.assertEquals(perc.percolates(), labeler.percolates());
+
+            long total = 0;
+            for (final Map.Entry<Long, Long> entry : labeler
+                    .clusterSizes().entrySet()) {
+                total += entry.getKey() * entry.getValue();
+            }
+            Assert.assertEquals(open, total);
+        }
+    }
+
+    /**
+     * Test method for {@link ClusterLabeler#fromSites(Path)}.
+     */
+    @Test
+    public void testFromSites() throws IOException {
+        Files.write(file, Arrays.asList("3", " 1 2", " 2 2", " 3 3", " 3 2"),
+                StandardCharsets.US_ASCII);
+
+        final ClusterLabeler labeler = ClusterLabeler.fromSites(file);
+        Assert.assertEquals(3, labeler.rows());
+        Assert.assertTrue(labeler.percolates());
+        Assert.assertEquals(1, labeler.clusters());
+    }
+
+    /**
+     * Test method for {@link ClusterLabeler#fromRows(Path)}.
+     */
+    @Test
+    public void testFromRows() throws IOException {
+        Files.write(file, Arrays.asList("4", "1 0 0 1", "1 1 0 1", "0 0 0 1",
+                "1 0 0 0"), StandardCharsets.US_ASCII);
+
+        final ClusterLabeler labeler = ClusterLabeler.fromRows(file);
+        Assert.assertEquals(4, labeler.rows());
+        Assert.assertFalse(labeler.percolates());
+        Assert.assertEquals(3, labeler.clusters());
+        Assert.assertEquals(3, labeler.largestCluster());
+    }
+
+    /**
+     * Test method for {@link ClusterLabeler#fromRows(Path)}.
+     */
+    @Test(expected = IOException.class)
+    public void testFromRowsShortRow() throws IOException {
+        Files.write(file, Arrays.asList("3", "101", "10"),
+                StandardCharsets.US_ASCII);
+        ClusterLabeler.fromRows(file);
+    }
+
+    /**
+     * Test method for {@link ClusterLabeler#percolates()}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testNotFinished() {
+        final ClusterLabeler labeler = new ClusterLabeler(2);
+        labeler.addRow(new boolean[] { true, true });
+        labeler.percolates();
+    }
+
+}
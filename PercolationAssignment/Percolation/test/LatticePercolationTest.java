@@ -0,0 +1,99 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class LatticePercolationTest {
+
+    private static final int SIZE = 4;
+    private LatticePercolation perc;
+
+    /**
+     * Test method for {@link LatticePercolation#openSite(int)}. The
+     * triangular lattice connects a site with its down-left neighbor.
+     */
+    @Test
+    public void testTriangularDiagonal() {
+        perc = new LatticePercolation(Lattice.triangular(SIZE));
+
+        // anti-diagonal from the top-right to the bottom-left corner
+        perc.openSite(3);
+        perc.openSite(6);
+        perc.openSite(9);
+        Assert.assertFalse(perc.percolates());
+        Assert.assertTrue(perc.isFullSite(9));
+
+        perc.openSite(12);
+        Assert.assertTrue(perc.percolates());
+    }
+
+    /**
+     * Test method for {@link LatticePercolation#openSite(int)}. The other
+     * diagonal is not a bond of the triangular lattice.
+     */
+    @Test
+    public void testTriangularOtherDiagonal() {
+        perc = new LatticePercolation(Lattice.triangular(SIZE));
+
+        perc.openSite(0);
+        perc.openSite(5);
+        perc.openSite(10);
+        perc.openSite(15);
+        Assert.assertFalse(perc.percolates());
+        Assert.assertFalse(perc.isFullSite(5));
+    }
+
+    /**
+     * Test method for {@link LatticePercolation#percolates()} on a cube,
+     * through a column crossing every layer.
+     */
+    @Test
+    public void testCubicColumn() {
+        perc = new LatticePercolation(Lattice.cubic(SIZE));
+        final int layer = SIZE * SIZE;
+
+        for (int z = 0; z < SIZE; z++) {
+            Assert.assertFalse(perc.percolates());
+            perc.openSite(z * layer + 5);
+        }
+        Assert.assertTrue(perc.percolates());
+        Assert.assertTrue(perc.isOpenSite(5));
+        Assert.assertFalse(perc.isOpenSite(6));
+    }
+
+    /**
+     * Test method for {@link LatticePercolation#openSite(int)}.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOpenOutOfBounds() {
+        perc = new LatticePercolation(Lattice.honeycomb(SIZE));
+        perc.openSite(SIZE * SIZE);
+    }
+
+    /**
+     * Test method for {@link LatticePercolation#reset()}.
+     */
+    @Test
+    public void testReset() {
+        perc = new LatticePercolation(Lattice.cubic(SIZE));
+        final int layer = SIZE * SIZE;
+
+        for (int z = 0; z < SIZE; z++) {
+            perc.openSite(z * layer);
+        }
+        Assert.assertTrue(perc.percolates());
+
+        perc.reset();
+        Assert.assertFalse(perc.percolates());
+        Assert.assertFalse(perc.isOpenSite(0));
+
+        for (int z = 1; z < SIZE; z++) {
+            perc.openSite(z * layer);
+        }
+        Assert.assertFalse(perc.percolates());
+        Assert.assertFalse(perc.isFullSite(layer));
+    }
+
+}
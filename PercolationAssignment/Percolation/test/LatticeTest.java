@@ -0,0 +1,118 @@
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class LatticeTest {
+
+    private static final int SIZE = 5;
+
+    private static Lattice[] all() {
+        return new Lattice[] { Lattice.square(SIZE), Lattice.moore(SIZE),
+                Lattice.triangular(SIZE), Lattice.honeycomb(SIZE),
+                Lattice.cubic(SIZE) };
+    }
+
+    /**
+     * Test method for {@link Lattice#square(int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorZero() {
+        Lattice.square(0);
+    }
+
+    /**
+     * Test method for {@link Lattice#neighbors(int, int[])}. Every bond must
+     * be seen from both of its sites, and no site is its own neighbor.
+     */
+    @Test
+    public void testNeighborsAreSymmetric() {
+        for (final Lattice lattice : all()) {
+            final int[] out = new int[lattice.degree()];
+            final int[] back = new int[lattice.degree()];
+
+            for (int p = 0; p < lattice.sites(); p++) {
+                final int count = lattice.neighbors(p, out);
+                Assert.assertTrue(count <= lattice.degree());
+
+                for (int i = 0; i < count; i++) {
+                    final int q = out[i];
+                    Assert.assertTrue(q >= 0 && q < lattice.sites());
+                    Assert.assertNotEquals(p, q);
+
+                    final int backCount = lattice.neighbors(q, back);
+                    Assert.assertTrue(Arrays.asList(box(back, backCount))
+                            .contains(p));
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link Lattice#neighbors(int, int[])}. An inner site has
+     * as many neighbors as the degree of the lattice.
+     */
+    @Test
+    public void testInnerSiteHasFullDegree() {
+        for (final Lattice lattice : all()) {
+            final int[] out = new int[lattice.degree()];
+            int inner = SIZE / 2 * SIZE + SIZE / 2; // center of the first 2D
+            if (lattice.sites() > SIZE * SIZE) {
+                inner += SIZE / 2 * SIZE * SIZE; // center layer
+            }
+
+            Assert.assertEquals(lattice.degree(),
+                    lattice.neighbors(inner, out));
+        }
+    }
+
+    /**
+     * Test method for {@link Lattice#isTop(int)} and
+     * {@link Lattice#isBottom(int)}.
+     */
+    @Test
+    public void testBoundaries() {
+        final Lattice square = Lattice.square(SIZE);
+        Assert.assertTrue(square.isTop(SIZE - 1));
+        Assert.assertFalse(square.isTop(SIZE));
+        Assert.assertTrue(square.isBottom(SIZE * SIZE - SIZE));
+        Assert.assertFalse(square.isBottom(SIZE * SIZE - SIZE - 1));
+
+        final Lattice cubic = Lattice.cubic(SIZE);
+        Assert.assertEquals(SIZE * SIZE * SIZE, cubic.sites());
+        Assert.assertTrue(cubic.isTop(SIZE * SIZE - 1));
+        Assert.assertFalse(cubic.isTop(SIZE * SIZE));
+        Assert.assertTrue(cubic.isBottom(cubic.sites() - SIZE * SIZE));
+    }
+
+    /**
+     * Test method for {@link Lattice#of(String, int)}.
+     */
+    @Test
+    public void testOf() {
+        Assert.assertTrue(Lattice.of("square", SIZE).isSquare());
+        Assert.assertFalse(Lattice.of("moore", SIZE).isSquare());
+        Assert.assertEquals(3, Lattice.of("honeycomb", SIZE).degree());
+    }
+
+    /**
+     * Test method for {@link Lattice#of(String, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfUnknown() {
+        Lattice.of("kagome", SIZE);
+    }
+
+    private static Integer[] box(final int[] values, final int count) {
+        final Integer[] boxed = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+
+}
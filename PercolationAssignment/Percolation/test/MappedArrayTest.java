@@ -0,0 +1,96 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class MappedArrayTest {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("mapped", ".bin");
+        Files.delete(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test method for {@link MappedArray#getLong(long)}. A fresh array reads
+     * as zeros.
+     */
+    @Test
+    public void testStartsZeroed() throws IOException {
+        final MappedArray array = new MappedArray(file, 1000);
+        try {
+            Assert.assertEquals(1000, array.length());
+            Assert.assertEquals(0L, array.getLong(992));
+            Assert.assertEquals(0, array.getByte(999));
+        } finally {
+            array.close();
+        }
+    }
+
+    /**
+     * Test method for {@link MappedArray#putLong(long, long)}. Values across
+     * several small chunks must land at their own offsets.
+     */
+    @Test
+    public void testAcrossChunks() throws IOException {
+        final MappedArray array = new MappedArray(file, 100 * 8, 4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                array.putLong(i * 8L, -i * 1000003L);
+            }
+            array.putByte(17, (byte) 0x7F);
+
+            for (int i = 0; i < 100; i++) {
+                if (i != 2) {
+                    Assert.assertEquals(-i * 1000003L, array.getLong(i * 8L));
+                }
+            }
+            Assert.assertEquals(0x7F, array.getByte(17));
+        } finally {
+            array.close();
+        }
+    }
+
+    /**
+     * Test method for {@link MappedArray#force()}. Written values are in the
+     * file once forced.
+     */
+    @Test
+    public void testForce() throws IOException {
+        final MappedArray array = new MappedArray(file, 16, 3);
+        try {
+            array.putByte(9, (byte) 42);
+            array.force();
+        } finally {
+            array.close();
+        }
+
+        final byte[] bytes = Files.readAllBytes(file);
+        Assert.assertEquals(16, bytes.length);
+        Assert.assertEquals(42, bytes[9]);
+    }
+
+    /**
+     * Test method for {@link MappedArray#MappedArray(Path, long)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorZero() throws IOException {
+        new MappedArray(file, 0);
+    }
+
+}
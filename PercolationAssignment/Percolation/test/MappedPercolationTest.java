@@ -0,0 +1,100 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class MappedPercolationTest {
+
+    private static final int SIZE = 5;
+    private Path directory;
+    private MappedPercolation perc;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("percolation");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (perc != null) {
+            perc.close();
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Test method for {@link MappedPercolation#open(int, int)}.
+     */
+    @Test
+    public void testOpenColumn() throws IOException {
+        perc = new MappedPercolation(SIZE, directory);
+
+        for (int row = 1; row <= SIZE; row++) {
+            Assert.assertFalse(perc.percolates());
+            perc.open(row, 2);
+            Assert.assertTrue(perc.isOpen(row, 2));
+            Assert.assertTrue(perc.isFull(row, 2));
+        }
+        Assert.assertTrue(perc.percolates());
+        Assert.assertFalse(perc.isOpen(1, 1));
+    }
+
+    /**
+     * Test method for {@link MappedPercolation#openSite(long)}. Must agree with
+     * Percolation opening the same sites.
+     */
+    @Test
+    public void testMatchesPercolation() throws IOException {
+        final int n = 30;
+        perc = new MappedPercolation(n, directory);
+        final Percolation reference = new Percolation(n);
+        final SplittableRandom random = new SplittableRandom(7);
+
+        while (!reference.percolates()) {
+            final int p = random.nextInt(n * n);
+            reference.openSite(p);
+            perc.openSite(p);
+            Assert.assertEquals(reference.percolates(), perc.percolates());
+        }
+
+        for (int row = 1; row <= n; row++) {
+            for (int column = 1; column <= n; column++) {
+                Assert.assertEquals(reference.isOpen(row, column),
+                        perc.isOpen(row, column));
+                Assert.assertEquals(reference.isFull(row, column),
+                        perc.isFull(row, column));
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link MappedPercolation#close()}.
+     */
+    @Test
+    public void testCloseDeletesFiles() throws IOException {
+        final MappedPercolation grid = new MappedPercolation(SIZE, directory);
+        grid.close();
+
+        Assert.assertFalse(Files.exists(directory.resolve("parent.bin")));
+        Assert.assertFalse(Files.exists(directory.resolve("state.bin")));
+    }
+
+    /**
+     * Test method for {@link MappedPercolation#openSite(long)}.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOpenOutOfBounds() throws IOException {
+        perc = new MappedPercolation(SIZE, directory);
+        perc.openSite((long) SIZE * SIZE);
+    }
+
+}
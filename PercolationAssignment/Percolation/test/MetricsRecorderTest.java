@@ -0,0 +1,67 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class MetricsRecorderTest {
+
+    /**
+     * Test method for {@link MetricsRecorder#find(int)}.
+     */
+    @Test
+    public void testFindHistogram() {
+        final MetricsRecorder recorder = new MetricsRecorder();
+        recorder.find(0);
+        recorder.find(2);
+        recorder.find(2);
+        recorder.find(1000);
+
+        Assert.assertEquals(4, recorder.finds());
+        Assert.assertEquals(1004 / 4.0, recorder.meanPathLength(), 1e-9);
+
+        final long[] histogram = recorder.pathLengthHistogram();
+        Assert.assertEquals(64, histogram.length); // 1000 in the last bucket
+        Assert.assertEquals(1, histogram[0]);
+        Assert.assertEquals(2, histogram[2]);
+        Assert.assertEquals(1, histogram[63]);
+    }
+
+    /**
+     * Test method for {@link MetricsRecorder#union(int)} and
+     * {@link MetricsRecorder#open(long)}.
+     */
+    @Test
+    public void testUnionsAndOpens() {
+        final MetricsRecorder recorder = new MetricsRecorder();
+        recorder.union(1);
+        recorder.union(3);
+        recorder.open(100);
+        recorder.open(300);
+
+        Assert.assertEquals(2, recorder.unions());
+        Assert.assertArrayEquals(new long[] { 0, 1, 0, 1 },
+                recorder.rankHistogram());
+        Assert.assertEquals(2, recorder.opens());
+        Assert.assertEquals(200.0, recorder.meanOpenNanos(), 1e-9);
+
+        recorder.reset();
+        Assert.assertEquals(0, recorder.unions());
+        Assert.assertTrue(Double.isNaN(recorder.meanOpenNanos()));
+    }
+
+    /**
+     * Test method for {@link Metrics#ENABLED}: off unless asked for.
+     */
+    @Test
+    public void testDisabledByDefault() {
+        final String mode = System.getProperty("percolation.metrics");
+
+        if (mode == null || !(mode.equals("true") || mode.equals("jfr"))) {
+            Assert.assertFalse(Metrics.ENABLED);
+            Assert.assertNull(Metrics.sink());
+        }
+    }
+
+}
@@ -0,0 +1,207 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class PercolationStatsTest {
+
+    private static final int SIZE = 20;
+    private static final int TRIALS = 50;
+    private static final long SEED = 42L;
+
+    /**
+     * Test method for {@link PercolationStats#PercolationStats(int, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorNoTrials() {
+        new PercolationStats(SIZE, 0);
+    }
+
+    /**
+     * Test method for {@link PercolationStats#PercolationStats(int, int)}:
+     * every instance runs its own trials.
+     */
+    @Test
+    public void testDefaultSeedsDiffer() {
+        final PercolationStats first = new PercolationStats(SIZE, TRIALS);
+        final PercolationStats second = new PercolationStats(SIZE, TRIALS);
+
+        Assert.assertNotEquals(first.mean(), second.mean(), 0.0);
+    }
+
+    /**
+     * Test method for {@link PercolationStats#mean()}.
+     */
+    @Test
+    public void testMeanInRange() {
+        final PercolationStats stats = new PercolationStats(SIZE, TRIALS,
+                SEED, 1);
+
+        Assert.assertTrue(stats.mean() > 0.5);
+        Assert.assertTrue(stats.mean() < 0.7);
+        Assert.assertTrue(stats.confidenceLo() < stats.mean());
+        Assert.assertTrue(stats.confidenceHi() > stats.mean());
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(int, int, long, int)}.
+     */
+    @Test
+    public void testSameResultsForAnyThreads() {
+        final PercolationStats sequential = new PercolationStats(SIZE, TRIALS,
+                SEED, 1);
+        final PercolationStats parallel = new PercolationStats(SIZE, TRIALS,
+                SEED, 4);
+
+        Assert.assertEquals(sequential.mean(), parallel.mean(), 0.0);
+        Assert.assertEquals(sequential.stddev(), parallel.stddev(), 0.0);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(int, int, PercolationStats.Sampling, long, int)}.
+     */
+    @Test
+    public void testPermutationSampling() {
+        final PercolationStats sequential = new PercolationStats(SIZE, TRIALS,
+                PercolationStats.Sampling.PERMUTATION, SEED, 1);
+        final PercolationStats parallel = new PercolationStats(SIZE, TRIALS,
+                PercolationStats.Sampling.PERMUTATION, SEED, 3);
+
+        Assert.assertTrue(sequential.mean() > 0.5);
+        Assert.assertTrue(sequential.mean() < 0.7);
+        Assert.assertEquals(sequential.mean(), parallel.mean(), 0.0);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(int, int, PercolationStats.Sampling, long, int)}.
+     * The single-pass engine opens the same sites as PERMUTATION.
+     */
+    @Test
+    public void testPreshuffledSampling() {
+        final PercolationStats permutation = new PercolationStats(SIZE,
+                TRIALS, PercolationStats.Sampling.PERMUTATION, SEED, 1);
+        final PercolationStats preshuffled = new PercolationStats(SIZE,
+                TRIALS, PercolationStats.Sampling.PRESHUFFLED, SEED, 2);
+
+        Assert.assertEquals(permutation.mean(), preshuffled.mean(), 0.0);
+        Assert.assertEquals(permutation.stddev(), preshuffled.stddev(), 0.0);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(int, int, PercolationStats.Sampling, long, int, PercolationStats.ProgressListener)}.
+     */
+    @Test
+    public void testProgressReachesAllTrials() {
+        final int trials = 5000; // more than one block
+        final RunningStats[] last = new RunningStats[1];
+
+        final PercolationStats stats = new PercolationStats(2, trials,
+                PercolationStats.Sampling.PRESHUFFLED, SEED, 2,
+                new PercolationStats.ProgressListener() {
+                    public void progress(final RunningStats partial) {
+                        Assert.assertTrue(last[0] == null
+                                || partial.count() > last[0].count());
+                        last[0] = partial;
+                    }
+                });
+
+        Assert.assertEquals(trials, last[0].count());
+        Assert.assertEquals(stats.mean(), last[0].mean(), 0.0);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(int, double, long, PercolationStats.Sampling, long, int)}.
+     */
+    @Test
+    public void testAdaptiveReachesTolerance() {
+        final double tolerance = 0.005;
+        final PercolationStats stats = new PercolationStats(SIZE, tolerance,
+                0, PercolationStats.Sampling.PRESHUFFLED, SEED, 1);
+        final PercolationStats again = new PercolationStats(SIZE, tolerance,
+                0, PercolationStats.Sampling.PRESHUFFLED, SEED, 3);
+
+        Assert.assertTrue(stats.confidenceHi() - stats.mean() <= tolerance);
+        Assert.assertTrue(stats.trials() > 1);
+        Assert.assertEquals(stats.trials(), again.trials());
+        Assert.assertEquals(stats.mean(), again.mean(), 0.0);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(Lattice, double, long, PercolationStats.Sampling, long, int, PercolationStats.Clock)}.
+     * A tolerance that is never met stops at the budget, not at the end of a
+     * block of thousands of trials: the first 32 trials take 32 ms, so the
+     * next block is cut to the 968 ms left, after which the budget is spent.
+     */
+    @Test
+    public void testAdaptiveKeepsToBudget() {
+        final long[] times = { 0, 32000000L, 1000000000L };
+        final PercolationStats.Clock clock = new PercolationStats.Clock() {
+            private int reads = 0;
+
+            public long nanoTime() {
+                return times[Math.min(reads++, times.length - 1)];
+            }
+        };
+
+        final PercolationStats stats = new PercolationStats(
+                Lattice.square(SIZE), 1e-9, 1000,
+                PercolationStats.Sampling.PRESHUFFLED, SEED, 1, clock);
+
+        Assert.assertTrue(stats.trials() > 32);
+        Assert.assertTrue(stats.trials() <= 1000);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(int, double, long, PercolationStats.Sampling, long, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAdaptiveNoTolerance() {
+        new PercolationStats(SIZE, 0.0, 0, PercolationStats.Sampling.REJECTION,
+                SEED, 1);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(Lattice, int, PercolationStats.Sampling, long, int)}.
+     * The site threshold of the triangular lattice is exactly 1/2.
+     */
+    @Test
+    public void testTriangularLattice() {
+        final PercolationStats stats = new PercolationStats(
+                Lattice.triangular(SIZE), TRIALS,
+                PercolationStats.Sampling.REJECTION, SEED, 1);
+
+        Assert.assertTrue(stats.mean() > 0.4);
+        Assert.assertTrue(stats.mean() < 0.6);
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationStats#PercolationStats(Lattice, int, PercolationStats.Sampling, long, int)}.
+     * ThresholdFinder and LatticePercolation must agree on any lattice.
+     */
+    @Test
+    public void testPreshuffledMatchesPermutationOnLattices() {
+        final Lattice[] lattices = new Lattice[] { Lattice.moore(SIZE),
+                Lattice.honeycomb(SIZE), Lattice.cubic(6) };
+
+        for (final Lattice lattice : lattices) {
+            final PercolationStats permutation = new PercolationStats(lattice,
+                    TRIALS, PercolationStats.Sampling.PERMUTATION, SEED, 1);
+            final PercolationStats preshuffled = new PercolationStats(lattice,
+                    TRIALS, PercolationStats.Sampling.PRESHUFFLED, SEED, 2);
+
+            Assert.assertEquals(permutation.mean(), preshuffled.mean(), 0.0);
+        }
+    }
+
+}
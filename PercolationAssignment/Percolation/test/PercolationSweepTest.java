@@ -0,0 +1,62 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class PercolationSweepTest {
+
+    private static final long SEED = 42L;
+
+    /**
+     * Test method for {@link PercolationSweep#parseSizes(String)}.
+     */
+    @Test
+    public void testParseSizes() {
+        Assert.assertArrayEquals(new int[] { 8, 16, 32, 40, 48 },
+                PercolationSweep.parseSizes("8, 16,32:48:8"));
+        Assert.assertArrayEquals(new int[] { 5, 7, 9 },
+                PercolationSweep.parseSizes("5:10:2"));
+    }
+
+    /**
+     * Test method for {@link PercolationSweep#parseSizes(String)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseSizesBadRange() {
+        PercolationSweep.parseSizes("10:5:1");
+    }
+
+    /**
+     * Test method for
+     * {@link PercolationSweep#run(int[], int, PercolationStats.Sampling, String, long, int, PrintStream)}.
+     * Every size gets a CSV line and the same results as its own
+     * PercolationStats.
+     */
+    @Test
+    public void testRun() {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final int[] sizes = new int[] { 5, 10, 20 };
+
+        final PercolationStats[] results = PercolationSweep.run(sizes, 30,
+                PercolationStats.Sampling.PRESHUFFLED, "square", SEED, 2,
+                new PrintStream(bytes));
+
+        final String[] lines = bytes.toString().trim().split("\\R");
+        Assert.assertEquals(sizes.length + 1, lines.length);
+        Assert.assertEquals(PercolationSweep.HEADER, lines[0]);
+
+        for (int i = 0; i < sizes.length; i++) {
+            final PercolationStats alone = new PercolationStats(sizes[i], 30,
+                    PercolationStats.Sampling.PRESHUFFLED, SEED, 1);
+            Assert.assertEquals(alone.mean(), results[i].mean(), 0.0);
+            Assert.assertTrue(lines[i + 1].startsWith(sizes[i] + ",30,"
+                    + alone.mean() + ","));
+        }
+    }
+
+}
@@ -1,3 +1,6 @@
+import java.util.Random;
+import java.util.SplittableRandom;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -44,7 +47,97 @@ public class PercolationTest {
      */
     @Test
     public void testOpen() {
-        Assert.fail("Not yet implemented");
+        percolation = new Percolation(SIZE);
+
+        percolation.open(1, 1);
+        percolation.open(2, 3);
+
+        Assert.assertTrue(percolation.isOpen(1, 1));
+        Assert.assertTrue(percolation.isOpen(2, 3));
+        Assert.assertFalse(percolation.isOpen(1, 2));
+        Assert.assertFalse(percolation.isOpen(3, 2));
+    }
+
+    /**
+     * Test method for {@link Percolation#open(int, int)}.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOpenOutOfBounds() {
+        percolation = new Percolation(SIZE);
+
+        percolation.open(SIZE + 1, 1);
+    }
+
+    /**
+     * Test method for {@link Percolation#openSite(int)}.
+     */
+    @Test
+    public void testOpenSite() {
+        percolation = new Percolation(SIZE);
+
+        percolation.openSite(0);
+        percolation.openSite(SIZE * SIZE - 1);
+
+        Assert.assertTrue(percolation.isOpen(1, 1));
+        Assert.assertTrue(percolation.isOpen(SIZE, SIZE));
+        Assert.assertTrue(percolation.isFull(1, 1));
+        Assert.assertFalse(percolation.isFull(SIZE, SIZE));
+    }
+
+    /**
+     * Test method for {@link Percolation#open(int[], Percolation.Listener)}.
+     */
+    @Test
+    public void testOpenBatch() {
+        percolation = new Percolation(SIZE);
+        final int[] percolatedAt = new int[] { -1, -1 };
+        final boolean[] full = new boolean[SIZE * SIZE];
+
+        // a closed side branch, then the middle column top to bottom
+        final int[] sites = new int[SIZE + 2];
+        sites[0] = SIZE + 3;
+        sites[1] = 2 * SIZE + 3;
+        for (int row = 0; row < SIZE; row++) {
+            sites[row + 2] = row * SIZE + 2;
+        }
+
+        final int opened = percolation.open(sites, new Percolation.Listener() {
+            public void percolated(final int position, final int site) {
+                percolatedAt[0] = position;
+                percolatedAt[1] = site;
+            }
+
+            public void full(final int site) {
+                full[site] = true;
+            }
+        });
+
+        Assert.assertEquals(sites.length, opened);
+        Assert.assertTrue(percolation.percolates());
+        Assert.assertEquals(sites.length - 1, percolatedAt[0]);
+        Assert.assertEquals((SIZE - 1) * SIZE + 2, percolatedAt[1]);
+        for (final int site : sites) {
+            Assert.assertTrue(full[site]);
+        }
+
+        // reopening is not counted and reports nothing
+        Assert.assertEquals(0, percolation.open(sites, null));
+    }
+
+    /**
+     * Test method for {@link Percolation#open(int[], Percolation.Listener)}.
+     */
+    @Test
+    public void testOpenBatchOutOfBounds() {
+        percolation = new Percolation(SIZE);
+
+        try {
+            percolation.open(new int[] { 0, SIZE * SIZE }, null);
+            Assert.fail("expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // nothing is opened when any index is wrong
+            Assert.assertFalse(percolation.isOpen(1, 1));
+        }
     }
 
     /**
@@ -70,7 +163,56 @@ public class PercolationTest {
      */
     @Test
     public void testIsFull() {
-        Assert.fail("Not yet implemented");
+        percolation = new Percolation(SIZE);
+
+        percolation.open(2, 2);
+        Assert.assertFalse(percolation.isFull(2, 2));
+
+        percolation.open(1, 2);
+        Assert.assertTrue(percolation.isFull(1, 2));
+        Assert.assertTrue(percolation.isFull(2, 2));
+        Assert.assertFalse(percolation.isFull(3, 2));
+    }
+
+    /**
+     * Test method for {@link Percolation#isFull(int, int)}. Sites connected
+     * only to the bottom row must not become full once the system percolates.
+     */
+    @Test
+    public void testIsFullNoBackwash() {
+        percolation = new Percolation(SIZE);
+
+        for (int row = 1; row <= SIZE; row++) {
+            percolation.open(row, 1);
+        }
+        percolation.open(SIZE, SIZE);
+
+        Assert.assertTrue(percolation.percolates());
+        Assert.assertTrue(percolation.isFull(SIZE, 1));
+        Assert.assertFalse(percolation.isFull(SIZE, SIZE));
+    }
+
+    /**
+     * Test method for {@link Percolation#fullSites()}. Must agree with
+     * isFull() on every site of a half open grid.
+     */
+    @Test
+    public void testFullSites() {
+        final int n = 70; // rows cross word boundaries
+        percolation = new Percolation(n);
+        final Random random = new Random(3L);
+
+        for (int k = 0; k < n * n / 2; k++) {
+            percolation.openSite(random.nextInt(n * n));
+        }
+
+        final SiteBitSet full = percolation.fullSites();
+        for (int row = 1; row <= n; row++) {
+            for (int column = 1; column <= n; column++) {
+                Assert.assertEquals(percolation.isFull(row, column),
+                        full.get((row - 1) * n + (column - 1)));
+            }
+        }
     }
 
     /**
@@ -78,7 +220,169 @@ public class PercolationTest {
      */
     @Test
     public void testPercolates() {
-        Assert.fail("Not yet implemented");
+        percolation = new Percolation(SIZE);
+
+        for (int row = 1; row < SIZE; row++) {
+            percolation.open(row, 3);
+            Assert.assertFalse(percolation.percolates());
+        }
+
+        percolation.open(SIZE, 2);
+        Assert.assertFalse(percolation.percolates());
+
+        percolation.open(SIZE, 3);
+        Assert.assertTrue(percolation.percolates());
+    }
+
+    /**
+     * Test method for {@link Percolation#percolates()}.
+     */
+    @Test
+    public void testPercolatesSingleSite() {
+        percolation = new Percolation(1);
+
+        Assert.assertFalse(percolation.percolates());
+
+        percolation.open(1, 1);
+        Assert.assertTrue(percolation.percolates());
+    }
+
+    /**
+     * Test method for {@link Percolation#reset()}. Components built before
+     * the reset must not leak into the new ones.
+     */
+    @Test
+    public void testReset() {
+        percolation = new Percolation(SIZE);
+
+        for (int row = 1; row <= SIZE; row++) {
+            percolation.open(row, 3);
+        }
+        percolation.open(3, 4);
+        Assert.assertTrue(percolation.percolates());
+
+        percolation.reset();
+        Assert.assertFalse(percolation.percolates());
+        Assert.assertFalse(percolation.isOpen(3, 3));
+
+        // old column minus its top site, plus the old side branch
+        for (int row = 2; row <= SIZE; row++) {
+            percolation.open(row, 3);
+        }
+        percolation.open(3, 4);
+        Assert.assertFalse(percolation.percolates());
+        Assert.assertFalse(percolation.isFull(3, 4));
+
+        percolation.open(1, 4);
+        percolation.open(2, 4);
+        Assert.assertTrue(percolation.percolates());
+        Assert.assertTrue(percolation.isFull(SIZE, 3));
+    }
+
+    /**
+     * Test method for {@link Percolation#restore(Percolation.Checkpoint)}.
+     * Every branch opened from a checkpoint must end like a grid where the
+     * prefix and the branch were opened from scratch.
+     */
+    @Test
+    public void testRestoreBranches() {
+        final int n = 20;
+        final SplittableRandom random = new SplittableRandom(5);
+        final int[] prefix = new int[150];
+        for (int k = 0; k < prefix.length; k++) {
+            prefix[k] = random.nextInt(n * n);
+        }
+
+        percolation = new Percolation(n);
+        percolation.open(prefix, null);
+        final Percolation.Checkpoint checkpoint = percolation.checkpoint();
+
+        for (int branch = 0; branch < 5; branch++) {
+            final Percolation reference = new Percolation(n);
+            reference.open(prefix, null);
+
+            while (!reference.percolates()) {
+                final int p = random.nextInt(n * n);
+                reference.openSite(p);
+                percolation.openSite(p);
+            }
+            assertSameState(reference, percolation, n);
+
+            percolation.restore(checkpoint);
+        }
+
+        final Percolation reference = new Percolation(n);
+        reference.open(prefix, null);
+        assertSameState(reference, percolation, n);
+    }
+
+    /**
+     * Test method for {@link Percolation#restore(Percolation.Checkpoint)}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRestoreAfterRelease() {
+        percolation = new Percolation(SIZE);
+        final Percolation.Checkpoint checkpoint = percolation.checkpoint();
+        percolation.open(1, 1);
+        percolation.release();
+        percolation.restore(checkpoint);
+    }
+
+    /**
+     * Test method for {@link Percolation#restore(Percolation.Checkpoint)}:
+     * restoring a checkpoint drops the ones taken after it.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRestoreDropsLaterCheckpoints() {
+        percolation = new Percolation(SIZE);
+        final Percolation.Checkpoint a = percolation.checkpoint();
+        percolation.open(1, 1);
+        percolation.open(2, 1);
+        final Percolation.Checkpoint b = percolation.checkpoint();
+        percolation.open(3, 1);
+        percolation.restore(a);
+
+        // the log grows back past the mark of b, but its state is gone
+        percolation.open(1, 2);
+        percolation.open(2, 2);
+        percolation.open(3, 2);
+        percolation.restore(b);
+    }
+
+    /**
+     * Test method for {@link Percolation#restore(Percolation.Checkpoint)}:
+     * checkpoints taken before the restored one stay valid.
+     */
+    @Test
+    public void testRestoreKeepsEarlierCheckpoints() {
+        percolation = new Percolation(SIZE);
+        final Percolation.Checkpoint a = percolation.checkpoint();
+        percolation.open(1, 1);
+        final Percolation.Checkpoint b = percolation.checkpoint();
+        percolation.open(2, 1);
+        percolation.restore(b);
+        percolation.open(3, 1);
+        percolation.restore(b);
+
+        Assert.assertTrue(percolation.isOpen(1, 1));
+        Assert.assertFalse(percolation.isOpen(2, 1));
+        Assert.assertFalse(percolation.isOpen(3, 1));
+
+        percolation.restore(a);
+        Assert.assertFalse(percolation.isOpen(1, 1));
+    }
+
+    private static void assertSameState(final Percolation expected,
+            final Percolation actual, final int n) {
+        Assert.assertEquals(expected.percolates(), actual.percolates());
+        for (int row = 1; row <= n; row++) {
+            for (int column = 1; column <= n; column++) {
+                Assert.assertEquals(expected.isOpen(row, column),
+                        actual.isOpen(row, column));
+                Assert.assertEquals(expected.isFull(row, column),
+                        actual.isFull(row, column));
+            }
+        }
     }
 
 }
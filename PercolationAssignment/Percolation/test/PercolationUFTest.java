@@ -0,0 +1,129 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class PercolationUFTest {
+
+    private static final int SIZE = 10;
+    private PercolationUF unionFind;
+
+    /**
+     * Test method for {@link PercolationUF#PercolationUF(int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorEmpty() {
+        unionFind = new PercolationUF(0);
+    }
+
+    /**
+     * Test method for {@link PercolationUF#find(int)}.
+     */
+    @Test
+    public void testFindIsolated() {
+        unionFind = new PercolationUF(SIZE);
+
+        for (int i = 0; i < SIZE; i++) {
+            Assert.assertEquals(i, unionFind.find(i));
+            Assert.assertEquals(0, unionFind.status(i));
+        }
+    }
+
+    /**
+     * Test method for {@link PercolationUF#union(int, int)}.
+     */
+    @Test
+    public void testUnionChain() {
+        unionFind = new PercolationUF(SIZE);
+
+        for (int i = 1; i < SIZE; i++) {
+            unionFind.union(i - 1, i);
+        }
+
+        for (int i = 1; i < SIZE; i++) {
+            Assert.assertTrue(unionFind.connected(0, i));
+        }
+    }
+
+    /**
+     * Test method for {@link PercolationUF#union(int, int)}.
+     */
+    @Test
+    public void testUnionMergesStatus() {
+        unionFind = new PercolationUF(SIZE);
+
+        unionFind.mark(0, PercolationUF.TOP);
+        unionFind.mark(SIZE - 1, PercolationUF.BOTTOM);
+        unionFind.union(0, 1);
+
+        Assert.assertEquals(PercolationUF.TOP, unionFind.status(1));
+        Assert.assertEquals(0, unionFind.status(2));
+        Assert.assertEquals(PercolationUF.BOTH,
+                unionFind.union(1, SIZE - 1));
+        Assert.assertEquals(PercolationUF.BOTH, unionFind.status(0));
+    }
+
+    /**
+     * Test method for {@link PercolationUF#rollback(int)}. Nested checkpoints
+     * undo exactly the unions made after them.
+     */
+    @Test
+    public void testRollback() {
+        unionFind = new PercolationUF(SIZE);
+        unionFind.union(0, 1);
+
+        final int outer = unionFind.checkpoint();
+        unionFind.union(1, 2);
+        unionFind.mark(2, PercolationUF.BOTTOM);
+
+        final int inner = unionFind.checkpoint();
+        unionFind.union(3, 4);
+        unionFind.union(2, 4);
+        Assert.assertTrue(unionFind.connected(0, 3));
+
+        unionFind.rollback(inner);
+        Assert.assertTrue(unionFind.connected(0, 2));
+        Assert.assertFalse(unionFind.connected(0, 3));
+        Assert.assertFalse(unionFind.connected(3, 4));
+        Assert.assertEquals(PercolationUF.BOTTOM, unionFind.status(0));
+
+        unionFind.rollback(outer);
+        Assert.assertTrue(unionFind.connected(0, 1));
+        Assert.assertFalse(unionFind.connected(0, 2));
+        Assert.assertEquals(0, unionFind.status(0));
+
+        unionFind.release();
+        Assert.assertTrue(unionFind.connected(0, 1));
+    }
+
+    /**
+     * Test method for {@link PercolationUF#rollback(int)}.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRollbackWithoutCheckpoint() {
+        unionFind = new PercolationUF(SIZE);
+        unionFind.rollback(0);
+    }
+
+    /**
+     * Test method for {@link PercolationUF#PercolationUF(int, boolean)}.
+     */
+    @Test
+    public void testUninitializedWithMakeSet() {
+        unionFind = new PercolationUF(SIZE, false);
+
+        for (int p = 0; p < SIZE; p++) {
+            unionFind.makeSet(p, p == 0 ? PercolationUF.TOP : 0);
+        }
+        Assert.assertEquals(3, unionFind.find(3));
+
+        unionFind.union(0, 1);
+        Assert.assertEquals(PercolationUF.TOP, unionFind.union(1, 2));
+        Assert.assertTrue(unionFind.connected(0, 2));
+        Assert.assertFalse(unionFind.connected(0, 3));
+        Assert.assertEquals(PercolationUF.TOP, unionFind.status(2));
+    }
+
+}
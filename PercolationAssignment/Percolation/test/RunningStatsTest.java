@@ -0,0 +1,70 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class RunningStatsTest {
+
+    private static final double DELTA = 1e-12;
+    private static final double[] VALUES = new double[] { 0.55, 0.61, 0.58,
+            0.6, 0.59, 0.62, 0.57 };
+
+    /**
+     * Test method for {@link RunningStats#add(double)}.
+     */
+    @Test
+    public void testMatchesStdStats() {
+        final RunningStats stats = new RunningStats();
+
+        for (final double x : VALUES) {
+            stats.add(x);
+        }
+
+        Assert.assertEquals(VALUES.length, stats.count());
+        Assert.assertEquals(StdStats.mean(VALUES), stats.mean(), DELTA);
+        Assert.assertEquals(StdStats.stddev(VALUES), stats.stddev(), DELTA);
+    }
+
+    /**
+     * Test method for {@link RunningStats#stddev()}.
+     */
+    @Test
+    public void testSingleValue() {
+        final RunningStats stats = new RunningStats();
+
+        Assert.assertTrue(Double.isNaN(stats.mean()));
+
+        stats.add(0.5);
+        Assert.assertEquals(0.5, stats.mean(), 0.0);
+        Assert.assertTrue(Double.isNaN(stats.stddev()));
+    }
+
+    /**
+     * Test method for {@link RunningStats#merge(RunningStats)}.
+     */
+    @Test
+    public void testMergeEqualsSequential() {
+        final RunningStats all = new RunningStats();
+        final RunningStats left = new RunningStats();
+        final RunningStats right = new RunningStats();
+
+        for (int i = 0; i < VALUES.length; i++) {
+            all.add(VALUES[i]);
+            if (i < 3) {
+                left.add(VALUES[i]);
+            } else {
+                right.add(VALUES[i]);
+            }
+        }
+
+        left.merge(right);
+        left.merge(new RunningStats());
+
+        Assert.assertEquals(all.count(), left.count());
+        Assert.assertEquals(all.mean(), left.mean(), DELTA);
+        Assert.assertEquals(all.stddev(), left.stddev(), DELTA);
+    }
+
+}
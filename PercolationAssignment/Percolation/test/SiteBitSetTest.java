@@ -0,0 +1,120 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class SiteBitSetTest {
+
+    private static final int SIZE = 9; // rows span word boundaries
+    private SiteBitSet sites;
+
+    /**
+     * Test method for {@link SiteBitSet#set(int)}.
+     */
+    @Test
+    public void testSetAndGet() {
+        sites = new SiteBitSet(SIZE);
+
+        Assert.assertTrue(sites.set(63));
+        Assert.assertTrue(sites.set(64));
+        Assert.assertFalse(sites.set(64));
+
+        Assert.assertTrue(sites.get(63));
+        Assert.assertTrue(sites.get(64));
+        Assert.assertFalse(sites.get(65));
+        Assert.assertEquals(2, sites.cardinality());
+    }
+
+    /**
+     * Test method for {@link SiteBitSet#clear()}.
+     */
+    @Test
+    public void testClear() {
+        sites = new SiteBitSet(SIZE);
+
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            sites.set(i);
+        }
+        Assert.assertEquals(SIZE * SIZE, sites.cardinality());
+
+        sites.clear();
+        Assert.assertEquals(0, sites.cardinality());
+    }
+
+    /**
+     * Test method for {@link SiteBitSet#openNeighbors(int)}.
+     */
+    @Test
+    public void testOpenNeighborsInside() {
+        sites = new SiteBitSet(SIZE);
+        final int center = 4 * SIZE + 4;
+
+        Assert.assertEquals(0, sites.openNeighbors(center));
+
+        sites.set(center - SIZE);
+        sites.set(center + 1);
+        Assert.assertEquals(SiteBitSet.UP | SiteBitSet.RIGHT,
+                sites.openNeighbors(center));
+
+        sites.set(center + SIZE);
+        sites.set(center - 1);
+        Assert.assertEquals(SiteBitSet.UP | SiteBitSet.LEFT | SiteBitSet.DOWN
+                | SiteBitSet.RIGHT, sites.openNeighbors(center));
+    }
+
+    /**
+     * Test method for {@link SiteBitSet#openNeighbors(int)}. Sites at the end
+     * of a row must not see the beginning of the next one.
+     */
+    @Test
+    public void testOpenNeighborsNoWrap() {
+        sites = new SiteBitSet(SIZE);
+
+        sites.set(SIZE); // first site of the second row
+        Assert.assertEquals(0, sites.openNeighbors(SIZE - 1));
+
+        sites.set(SIZE - 1); // last site of the first row
+        Assert.assertEquals(0, sites.openNeighbors(SIZE));
+    }
+
+    /**
+     * Test method for {@link SiteBitSet#setRange(int, int)}.
+     */
+    @Test
+    public void testSetRange() {
+        sites = new SiteBitSet(SIZE * 2); // 324 sites, six words
+
+        sites.setRange(60, 200);
+        sites.setRange(3, 5);
+        sites.setRange(7, 7);
+
+        for (int i = 0; i < SIZE * SIZE * 4; i++) {
+            final boolean expected = (i >= 60 && i < 200) || i == 3 || i == 4;
+            Assert.assertEquals(expected, sites.get(i));
+        }
+    }
+
+    /**
+     * Test method for {@link SiteBitSet#nextSetBit(int)} and
+     * {@link SiteBitSet#nextClearBit(int)}.
+     */
+    @Test
+    public void testNextBits() {
+        sites = new SiteBitSet(SIZE);
+
+        Assert.assertEquals(-1, sites.nextSetBit(0));
+        Assert.assertEquals(0, sites.nextClearBit(0));
+
+        sites.setRange(10, 70);
+        Assert.assertEquals(10, sites.nextSetBit(0));
+        Assert.assertEquals(64, sites.nextSetBit(64));
+        Assert.assertEquals(70, sites.nextClearBit(10));
+        Assert.assertEquals(-1, sites.nextSetBit(70));
+
+        sites.setRange(70, SIZE * SIZE);
+        Assert.assertEquals(SIZE * SIZE, sites.nextClearBit(10));
+    }
+
+}
@@ -0,0 +1,66 @@
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class SitePermutationTest {
+
+    private static final int SITES = 100;
+    private final SplittableRandom random = new SplittableRandom(7L);
+
+    /**
+     * Test method for {@link SitePermutation#next(SplittableRandom)}.
+     */
+    @Test
+    public void testDrawsEverySiteOnce() {
+        final SitePermutation order = new SitePermutation(SITES);
+
+        for (int round = 0; round < 3; round++) {
+            final boolean[] seen = new boolean[SITES];
+
+            order.restart();
+            for (int i = 0; i < SITES; i++) {
+                final int site = order.next(random);
+                Assert.assertFalse(seen[site]);
+                seen[site] = true;
+            }
+            Assert.assertFalse(order.hasNext());
+        }
+    }
+
+    /**
+     * Test method for {@link SitePermutation#restart()}. A reused permutation
+     * must give the same order as a fresh one for the same generator.
+     */
+    @Test
+    public void testRestartForgetsPreviousOrder() {
+        final SitePermutation reused = new SitePermutation(SITES);
+        reused.next(new SplittableRandom(1L));
+        reused.next(new SplittableRandom(2L));
+        reused.restart();
+
+        final SitePermutation fresh = new SitePermutation(SITES);
+        final SplittableRandom first = new SplittableRandom(3L);
+        final SplittableRandom second = new SplittableRandom(3L);
+
+        for (int i = 0; i < SITES; i++) {
+            Assert.assertEquals(fresh.next(first), reused.next(second));
+        }
+    }
+
+    /**
+     * Test method for {@link SitePermutation#next(SplittableRandom)}.
+     */
+    @Test(expected = java.util.NoSuchElementException.class)
+    public void testNextExhausted() {
+        final SitePermutation order = new SitePermutation(1);
+
+        order.next(random);
+        order.next(random);
+    }
+
+}
@@ -0,0 +1,82 @@
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class StripPercolationTest {
+
+    /**
+     * Test method for {@link StripPercolation#isFull(int, int)}. Must agree
+     * with Percolation opening the same sites, whatever the number of
+     * threads (and so of strips).
+     */
+    @Test
+    public void testMatchesPercolation() {
+        final int n = 37;
+        final SplittableRandom random = new SplittableRandom(11);
+
+        for (int grid = 0; grid < 20; grid++) {
+            final SiteBitSet open = new SiteBitSet(n);
+            final Percolation reference = new Percolation(n);
+            for (int site = 0; site < open.size(); site++) {
+                if (random.nextDouble() < 0.59) {
+                    open.set(site);
+                    reference.openSite(site);
+                }
+            }
+
+            for (final int threads : new int[] { 1, 2, 3, 8 }) {
+                final StripPercolation perc = new StripPercolation(n, open,
+                        threads);
+                Assert.assertEquals(reference.percolates(), perc.percolates());
+
+                for (int row = 1; row <= n; row++) {
+                    for (int column = 1; column <= n; column++) {
+                        Assert.assertEquals(reference.isFull(row, column),
+                                perc.isFull(row, column));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link StripPercolation#percolates()}. A column only
+     * percolates once the strips it crosses are merged.
+     */
+    @Test
+    public void testColumnAcrossStrips() {
+        final int n = 16;
+        final SiteBitSet open = new SiteBitSet(n);
+        for (int row = 0; row < n; row++) {
+            open.set(row * n + 5);
+        }
+
+        Assert.assertTrue(new StripPercolation(n, open, 4).percolates());
+
+        final SiteBitSet broken = new SiteBitSet(n);
+        for (int row = 0; row < n; row++) {
+            if (row != 8) { // the first row of a strip
+                broken.set(row * n + 5);
+            }
+        }
+        final StripPercolation perc = new StripPercolation(n, broken, 4);
+        Assert.assertFalse(perc.percolates());
+        Assert.assertTrue(perc.isFull(8, 6));
+        Assert.assertFalse(perc.isFull(10, 6));
+    }
+
+    /**
+     * Test method for
+     * {@link StripPercolation#StripPercolation(int, SiteBitSet, int)}.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorSizeMismatch() {
+        new StripPercolation(4, new SiteBitSet(5), 1);
+    }
+
+}
@@ -0,0 +1,84 @@
+import java.util.SplittableRandom;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author esloho
+ *
+ */
+public class ThresholdFinderTest {
+
+    private static final int SIZE = 4;
+    private ThresholdFinder finder;
+
+    /**
+     * Test method for {@link ThresholdFinder#percolationPoint(int[])}.
+     */
+    @Test
+    public void testColumnPercolates() {
+        finder = new ThresholdFinder(SIZE);
+
+        // second column from top to bottom, after two unrelated sites
+        final int[] order = new int[] { 0, 15, 1, 5, 9, 13 };
+
+        Assert.assertEquals(order.length, finder.percolationPoint(order));
+    }
+
+    /**
+     * Test method for {@link ThresholdFinder#percolationPoint(int[])}.
+     * Consecutive passes must not see the sites opened by the previous one.
+     */
+    @Test
+    public void testPassesAreIndependent() {
+        finder = new ThresholdFinder(SIZE);
+
+        Assert.assertEquals(4, finder.percolationPoint(new int[] { 2, 6, 10,
+                14 }));
+        Assert.assertEquals(-1, finder.percolationPoint(new int[] { 2, 6,
+                14 }));
+        Assert.assertEquals(-1, finder.percolationPoint(new int[] { 3, 6, 10,
+                14 }));
+    }
+
+    /**
+     * Test method for {@link ThresholdFinder#percolationPoint(int[])}.
+     */
+    @Test
+    public void testNoWrapAcrossRows() {
+        finder = new ThresholdFinder(SIZE);
+
+        // a diagonal staircase only touches through row ends
+        Assert.assertEquals(-1, finder.percolationPoint(new int[] { 3, 4, 11,
+                12 }));
+    }
+
+    /**
+     * Test method for
+     * {@link ThresholdFinder#percolationPoint(SitePermutation, SplittableRandom)}.
+     * Must agree with Percolation opening the same sites.
+     */
+    @Test
+    public void testAgreesWithPercolation() {
+        final int n = 30;
+        finder = new ThresholdFinder(n);
+        final SitePermutation order = new SitePermutation(n * n);
+
+        for (long seed = 0; seed < 20; seed++) {
+            final int point = finder.percolationPoint(order,
+                    new SplittableRandom(seed));
+
+            final Percolation percolation = new Percolation(n);
+            final SplittableRandom random = new SplittableRandom(seed);
+            int opened = 0;
+            order.restart();
+            while (!percolation.percolates()) {
+                percolation.openSite(order.next(random));
+                opened++;
+            }
+
+            Assert.assertEquals(opened, point);
+        }
+    }
+
+}
@@ -147,6 +147,11 @@ public class RandomizedQueueTest {
         randomQueue.enqueue(ITEM1);
         randomQueue.enqueue(ITEM2);
         randomQueue.enqueue(ITEM3);
+        // With 3 items, 1 run in 6 gave both iterators the same order: with
+        // 20 the chance is 1 in 20!
+        for (int i = 0; i < 17; i++) {
+            randomQueue.enqueue(i);
+        }
         Iterator<Integer> iterator1 = randomQueue.iterator();
         Iterator<Integer> iterator2 = randomQueue.iterator();
 
@@ -0,0 +1,70 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Board heuristics and neighbor generation on boards of 8puzzle-testing.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    private static final MethodHandle MANHATTAN = Targets.method("Board",
+            "manhattan");
+    private static final MethodHandle HAMMING = Targets.method("Board",
+            "hamming");
+    private static final MethodHandle NEIGHBORS = Targets.method("Board",
+            "neighbors");
+
+    @Param({ "puzzle20.txt", "puzzle4x4-78.txt" })
+    private String file;
+
+    private Object board;
+
+    @Setup
+    public void setUp() throws Throwable {
+        board = Puzzles.board(file);
+    }
+
+    @Benchmark
+    public int manhattan() throws Throwable {
+        return (int) MANHATTAN.invokeExact(board);
+    }
+
+    @Benchmark
+    public int hamming() throws Throwable {
+        return (int) HAMMING.invokeExact(board);
+    }
+
+    @Benchmark
+    public int neighbors() throws Throwable {
+        int count = 0;
+        final Object neighbors = NEIGHBORS.invokeExact(board);
+        for (final Object neighbor : (Iterable<?>) neighbors) {
+            if (neighbor != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,83 @@
+package bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Fast.drawLines() on files of collinear-testing. The segments it finds are
+ * still drawn with StdDraw, so this benchmark needs a display; what it prints
+ * is discarded.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FastBenchmark {
+
+    private static final Class<?> POINT = Targets.type("Point");
+    private static final MethodHandle NEW_POINT = Targets.constructor("Point",
+            int.class, int.class);
+    private static final MethodHandle DRAW_LINES = Targets.method("Fast",
+            "drawLines", Array.newInstance(POINT, 0).getClass());
+
+    @Param({ "input400.txt", "input2000.txt" })
+    private String file;
+
+    private Object[] points;
+    private PrintStream out;
+
+    @Setup
+    public void setUp() throws Throwable {
+        final List<String> tokens = Targets
+                .tokens("CollinearPointsAssignment/collinear-testing/" + file);
+        final int n = Integer.parseInt(tokens.get(0));
+
+        points = (Object[]) Array.newInstance(POINT, n);
+        for (int i = 0; i < n; i++) {
+            points[i] = NEW_POINT.invokeExact(
+                    Integer.parseInt(tokens.get(1 + 2 * i)),
+                    Integer.parseInt(tokens.get(2 + 2 * i)));
+        }
+
+        out = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(final int b) {
+                // discard the printed segments
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public Object[] drawLines() throws Throwable {
+        DRAW_LINES.invokeExact((Object) points);
+        return points;
+    }
+
+}
@@ -0,0 +1,118 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * KdTree insert, range and nearest on kdtree-testing/input100K.txt. Range and
+ * nearest run a fixed set of random queries per operation.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KdTreeBenchmark {
+
+    private static final int QUERIES = 1000;
+    private static final double QUERY_SIDE = 0.01;
+
+    private static final Class<?> POINT = Targets.type("Point2D");
+    private static final MethodHandle NEW_TREE = Targets
+            .constructor("KdTree");
+    private static final MethodHandle NEW_POINT = Targets.constructor(
+            "Point2D", double.class, double.class);
+    private static final MethodHandle NEW_RECT = Targets.constructor("RectHV",
+            double.class, double.class, double.class, double.class);
+    private static final MethodHandle INSERT = Targets.method("KdTree",
+            "insert", POINT);
+    private static final MethodHandle RANGE = Targets.method("KdTree",
+            "range", Targets.type("RectHV"));
+    private static final MethodHandle NEAREST = Targets.method("KdTree",
+            "nearest", POINT);
+
+    private Object[] points;
+    private Object[] rects;
+    private Object[] targets;
+    private Object tree;
+
+    @Setup
+    public void setUp() throws Throwable {
+        final List<String> tokens = Targets
+                .tokens("Kd-TreeAssignment/kdtree-testing/input100K.txt");
+        points = new Object[tokens.size() / 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = NEW_POINT.invokeExact(
+                    Double.parseDouble(tokens.get(2 * i)),
+                    Double.parseDouble(tokens.get(2 * i + 1)));
+        }
+
+        final SplittableRandom random = new SplittableRandom(42L);
+        rects = new Object[QUERIES];
+        targets = new Object[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            final double x = random.nextDouble() * (1 - QUERY_SIDE);
+            final double y = random.nextDouble() * (1 - QUERY_SIDE);
+            rects[i] = NEW_RECT.invokeExact(x, y, x + QUERY_SIDE, y
+                    + QUERY_SIDE);
+            targets[i] = NEW_POINT.invokeExact(random.nextDouble(),
+                    random.nextDouble());
+        }
+
+        tree = build();
+    }
+
+    private Object build() throws Throwable {
+        final Object t = NEW_TREE.invokeExact();
+        for (final Object p : points) {
+            INSERT.invokeExact(t, p);
+        }
+        return t;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object insert() throws Throwable {
+        return build();
+    }
+
+    @Benchmark
+    public int range() throws Throwable {
+        int found = 0;
+        for (final Object rect : rects) {
+            final Object inside = RANGE.invokeExact(tree, rect);
+            for (final Object p : (Iterable<?>) inside) {
+                if (p != null) {
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Object nearest() throws Throwable {
+        Object last = null;
+        for (final Object p : targets) {
+            last = NEAREST.invokeExact(tree, p);
+        }
+        return last;
+    }
+
+}
@@ -0,0 +1,97 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Percolation.open() and percolates(): opens the sites of a fixed random order
+ * on a fresh grid until it percolates.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PercolationBenchmark {
+
+    private static final MethodHandle NEW = Targets.constructor(
+            "Percolation", int.class);
+    private static final MethodHandle OPEN = Targets.method("Percolation",
+            "open", int.class, int.class);
+    private static final MethodHandle OPEN_SITE = Targets.method(
+            "Percolation", "openSite", int.class);
+    private static final MethodHandle PERCOLATES = Targets.method(
+            "Percolation", "percolates");
+
+    @Param({ "64", "512" })
+    private int n;
+
+    private int[] order; // random permutation of the flat site indices
+    private Object percolated; // a grid that already percolates
+
+    @Setup
+    public void setUp() throws Throwable {
+        final SplittableRandom random = new SplittableRandom(42L);
+        order = new int[n * n];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        for (int i = order.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int aux = order[i];
+            order[i] = order[j];
+            order[j] = aux;
+        }
+
+        percolated = NEW.invokeExact(n);
+        openUntilPercolates(percolated);
+    }
+
+    private int openUntilPercolates(final Object perc) throws Throwable {
+        int k = 0;
+        while (!(boolean) PERCOLATES.invokeExact(perc)) {
+            OPEN_SITE.invokeExact(perc, order[k]);
+            k++;
+        }
+        return k;
+    }
+
+    @Benchmark
+    public int openSiteUntilPercolates() throws Throwable {
+        return openUntilPercolates(NEW.invokeExact(n));
+    }
+
+    @Benchmark
+    public int openRowColumnUntilPercolates() throws Throwable {
+        final Object perc = NEW.invokeExact(n);
+        int k = 0;
+        while (!(boolean) PERCOLATES.invokeExact(perc)) {
+            final int site = order[k];
+            OPEN.invokeExact(perc, site / n + 1, site % n + 1);
+            k++;
+        }
+        return k;
+    }
+
+    @Benchmark
+    public boolean percolates() throws Throwable {
+        return (boolean) PERCOLATES.invokeExact(percolated);
+    }
+
+}
@@ -0,0 +1,62 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PercolationStats trials for every sampling mode, single threaded.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PercolationStatsBenchmark {
+
+    private static final int TRIALS = 16;
+    private static final long SEED = 42L;
+
+    private static final Class<?> SAMPLING = Targets
+            .type("PercolationStats$Sampling");
+    private static final MethodHandle NEW = Targets.constructor(
+            "PercolationStats", int.class, int.class, SAMPLING, long.class,
+            int.class);
+    private static final MethodHandle MEAN = Targets.method(
+            "PercolationStats", "mean");
+
+    @Param({ "64", "256" })
+    private int n;
+
+    @Param({ "REJECTION", "PERMUTATION", "PRESHUFFLED" })
+    private String sampling;
+
+    private Object mode;
+
+    @Setup
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void setUp() {
+        mode = Enum.valueOf((Class) SAMPLING, sampling);
+    }
+
+    @Benchmark
+    public double trials() throws Throwable {
+        final Object stats = NEW.invokeExact(n, TRIALS, mode, SEED, 1);
+        return (double) MEAN.invokeExact(stats);
+    }
+
+}
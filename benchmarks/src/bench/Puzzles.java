@@ -0,0 +1,37 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+
+/**
+ * Boards read from the 8puzzle-testing files.
+ *
+ * @author esloho
+ */
+final class Puzzles {
+
+    private static final MethodHandle NEW_BOARD = Targets.constructor("Board",
+            int[][].class);
+
+    private Puzzles() {
+    }
+
+    /**
+     * Builds the Board of the given file of 8PuzzleAssignment/8puzzle-testing.
+     */
+    static Object board(final String name) throws Throwable {
+        final List<String> tokens = Targets
+                .tokens("8PuzzleAssignment/8puzzle-testing/" + name);
+        final int n = Integer.parseInt(tokens.get(0));
+        final int[][] blocks = new int[n][n];
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                blocks[i][j] = Integer.parseInt(tokens.get(1 + i * n + j));
+            }
+        }
+
+        return NEW_BOARD.invokeExact((Object) blocks);
+    }
+
+}
@@ -0,0 +1,92 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deque and RandomizedQueue: fill with n items, then empty them again.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueueBenchmark {
+
+    private static final MethodHandle NEW_DEQUE = Targets
+            .constructor("Deque");
+    private static final MethodHandle ADD_FIRST = Targets.method("Deque",
+            "addFirst", Object.class);
+    private static final MethodHandle ADD_LAST = Targets.method("Deque",
+            "addLast", Object.class);
+    private static final MethodHandle REMOVE_FIRST = Targets.method("Deque",
+            "removeFirst");
+    private static final MethodHandle REMOVE_LAST = Targets.method("Deque",
+            "removeLast");
+
+    private static final MethodHandle NEW_QUEUE = Targets
+            .constructor("RandomizedQueue");
+    private static final MethodHandle ENQUEUE = Targets.method(
+            "RandomizedQueue", "enqueue", Object.class);
+    private static final MethodHandle DEQUEUE = Targets.method(
+            "RandomizedQueue", "dequeue");
+
+    private static final Object ITEM = "item";
+
+    @Param({ "1024", "65536" })
+    private int n;
+
+    @Benchmark
+    public Object dequeAddLastRemoveFirst() throws Throwable {
+        final Object deque = NEW_DEQUE.invokeExact();
+        for (int i = 0; i < n; i++) {
+            ADD_LAST.invokeExact(deque, ITEM);
+        }
+        Object last = null;
+        for (int i = 0; i < n; i++) {
+            last = REMOVE_FIRST.invokeExact(deque);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Object dequeAddFirstRemoveLast() throws Throwable {
+        final Object deque = NEW_DEQUE.invokeExact();
+        for (int i = 0; i < n; i++) {
+            ADD_FIRST.invokeExact(deque, ITEM);
+        }
+        Object last = null;
+        for (int i = 0; i < n; i++) {
+            last = REMOVE_LAST.invokeExact(deque);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public Object randomizedQueueEnqueueDequeue() throws Throwable {
+        final Object queue = NEW_QUEUE.invokeExact();
+        for (int i = 0; i < n; i++) {
+            ENQUEUE.invokeExact(queue, ITEM);
+        }
+        Object last = null;
+        for (int i = 0; i < n; i++) {
+            last = DEQUEUE.invokeExact(queue);
+        }
+        return last;
+    }
+
+}
@@ -0,0 +1,53 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A* Solver on files of 8puzzle-testing, from easy to the hardest 3x3 ones and
+ * an unsolvable board.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SolverBenchmark {
+
+    private static final MethodHandle NEW = Targets.constructor("Solver",
+            Targets.type("Board"));
+    private static final MethodHandle MOVES = Targets.method("Solver",
+            "moves");
+
+    @Param({ "puzzle20.txt", "puzzle28.txt", "puzzle31.txt",
+            "puzzle3x3-unsolvable.txt" })
+    private String file;
+
+    private Object board;
+
+    @Setup
+    public void setUp() throws Throwable {
+        board = Puzzles.board(file);
+    }
+
+    @Benchmark
+    public int solve() throws Throwable {
+        return (int) MOVES.invokeExact(NEW.invokeExact(board));
+    }
+
+}
@@ -0,0 +1,70 @@
+package bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StripPercolation on a fixed random grid at the threshold, for several
+ * numbers of threads, to measure the speedup of the strip decomposition.
+ *
+ * @author esloho
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StripPercolationBenchmark {
+
+    private static final MethodHandle NEW_GRID = Targets.constructor(
+            "SiteBitSet", int.class);
+    private static final MethodHandle SET = Targets.method("SiteBitSet",
+            "set", int.class).asType(
+            MethodType.methodType(void.class, Object.class, int.class));
+    private static final MethodHandle NEW = Targets.constructor(
+            "StripPercolation", int.class, Targets.type("SiteBitSet"),
+            int.class);
+    private static final MethodHandle PERCOLATES = Targets.method(
+            "StripPercolation", "percolates");
+
+    @Param({ "4096" })
+    private int n;
+
+    @Param({ "1", "4", "32" })
+    private int threads;
+
+    private Object open; // SiteBitSet with about 59% of the sites open
+
+    @Setup
+    public void setUp() throws Throwable {
+        final SplittableRandom random = new SplittableRandom(42L);
+        open = NEW_GRID.invokeExact(n);
+        for (int site = 0; site < n * n; site++) {
+            if (random.nextDouble() < 0.5927) {
+                SET.invokeExact(open, site);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean label() throws Throwable {
+        return (boolean) PERCOLATES.invokeExact(NEW.invokeExact(n, open,
+                threads));
+    }
+
+}
@@ -0,0 +1,106 @@
+package bench;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Access to the assignment classes and their input files.
+ *
+ * The assignments live in the default package, which cannot be imported from a
+ * named package, and JMH refuses benchmarks in the default package. Benchmarks
+ * therefore reach the assignment code through method handles kept in static
+ * final fields, which the JIT inlines like direct calls. Receivers and
+ * reference arguments are erased to Object, so call sites look like
+ * {@code OPEN.invokeExact((Object) perc, row, column)}.
+ *
+ * @author esloho
+ */
+final class Targets {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Targets() {
+    }
+
+    /**
+     * Loads an assignment class by its simple (default package) name.
+     */
+    static Class<?> type(final String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Missing assignment class " + name,
+                    e);
+        }
+    }
+
+    /**
+     * Handle for a public constructor, returning Object.
+     */
+    static MethodHandle constructor(final String name,
+            final Class<?>... parameters) {
+        try {
+            final MethodHandle handle = LOOKUP.findConstructor(type(name),
+                    MethodType.methodType(void.class, parameters));
+            return handle.asType(handle.type().erase());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Handle for a method (private ones included) with the receiver, if any,
+     * and all reference types erased to Object.
+     */
+    static MethodHandle method(final String name, final String method,
+            final Class<?>... parameters) {
+        try {
+            final Method m = type(name).getDeclaredMethod(method, parameters);
+            m.setAccessible(true);
+            final MethodHandle handle = LOOKUP.unreflect(m);
+            return handle.asType(handle.type().erase());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Path of an input file, relative to the repository root given by the
+     * coursera.root system property (the working directory by default).
+     */
+    static Path file(final String relative) {
+        return Paths.get(System.getProperty("coursera.root", "."), relative);
+    }
+
+    /**
+     * All the whitespace separated tokens of an input file.
+     */
+    static List<String> tokens(final String relative) {
+        try {
+            final List<String> tokens = new ArrayList<String>();
+            for (final String line : Files.readAllLines(file(relative),
+                    StandardCharsets.UTF_8)) {
+                for (final String token : line.trim().split("\\s+")) {
+                    if (!token.isEmpty()) {
+                        tokens.add(token);
+                    }
+                }
+            }
+            return tokens;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + file(relative)
+                    + " (run from the repository root or set -Dcoursera.root)",
+                    e);
+        }
+    }
+
+}